@@ -0,0 +1,68 @@
+package org.example.benchmark;
+
+import org.example.search.model.Priority;
+import org.example.search.model.Task;
+import org.example.search.model.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Синтетические задачи: детерминированный набор слов в названиях и описаниях,
+ * равномерное распределение по пользователям, статусам и приоритетам.
+ */
+final class BenchmarkData {
+
+    // Задачи распределяются по USERS пользователям, бенчмарки работают с пользователем USER_ID
+    static final int USERS = 100;
+    static final long USER_ID = 1L;
+
+    static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    private static final String[] WORDS = {
+            "отчет", "встреча", "клиент", "договор", "счет", "релиз", "проверка", "дизайн",
+            "бюджет", "презентация", "звонок", "план", "ошибка", "тест", "документация", "сервер",
+            "квартал", "поставщик", "заявка", "обучение", "аудит", "миграция", "оплата", "ревью"
+    };
+
+    private BenchmarkData() {
+    }
+
+    static List<Task> tasks(int count) {
+        Random random = new Random(42);
+        TaskStatus[] statuses = TaskStatus.values();
+        Priority[] priorities = Priority.values();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Task task = new Task();
+            task.setId((long) i);
+            task.setUserId(i % USERS + 1L);
+            task.setTitle(phrase(random, 3) + " " + i);
+            task.setDescription(phrase(random, 20));
+            task.setStatus(statuses[random.nextInt(statuses.length)]);
+            task.setPriority(priorities[random.nextInt(priorities.length)]);
+            task.setCreatedAt(BASE_TIME.plusMinutes(i));
+            task.setUpdatedAt(task.getCreatedAt());
+            task.setDeadline(BASE_TIME.plusDays(random.nextInt(365)));
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    static List<Task> tasksOfUser(List<Task> tasks, long userId) {
+        return tasks.stream().filter(task -> task.getUserId() == userId).toList();
+    }
+
+    private static String phrase(Random random, int words) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                phrase.append(' ');
+            }
+            phrase.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return phrase.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.search.dto.TaskSummary;
+import org.example.search.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON-сериализация страницы результатов поиска, как ее отдает {@code /api/search/advanced}:
+ * полные задачи и краткое представление ({@code view=summary}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    private int pageSize;
+
+    @Param({"full", "summary"})
+    private String view;
+
+    private ObjectMapper objectMapper;
+    private Page<?> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Те же настройки Jackson, что у Spring MVC по умолчанию (JavaTimeModule, даты строками)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Task> tasks = BenchmarkData.tasks(pageSize);
+        List<?> content = "summary".equals(view)
+                ? tasks.stream().map(TaskSummary::from).toList()
+                : tasks;
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 100_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.benchmark;
+
+import org.example.search.dto.SearchCriteria;
+import org.example.search.dto.SearchMode;
+import org.example.search.model.Priority;
+import org.example.search.model.Task;
+import org.example.search.model.TaskStatus;
+import org.example.search.service.TaskSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TaskSearchService.searchTasks} для разных наборов фильтров. Данные одного
+ * пользователя - {@code datasetSize / USERS} задач, остальные задачи лежат в той же таблице.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int datasetSize;
+
+    @Param({"user", "status", "keyword", "statusPriorityDeadline", "sortByTitle", "fuzzy"})
+    private String criteriaShape;
+
+    private SearchServiceContext context;
+    private TaskSearchService taskSearchService;
+    private SearchCriteria criteria;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SearchServiceContext.start();
+        context.load(BenchmarkData.tasks(datasetSize));
+        taskSearchService = context.bean(TaskSearchService.class);
+        criteria = criteria(criteriaShape);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Task> searchTasks() {
+        return taskSearchService.searchTasks(criteria);
+    }
+
+    static SearchCriteria criteria(String shape) {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setUserId(BenchmarkData.USER_ID);
+        switch (shape) {
+            case "user" -> {
+            }
+            case "status" -> criteria.setStatus(TaskStatus.IN_PROGRESS);
+            case "keyword" -> criteria.setKeyword("отчет");
+            case "statusPriorityDeadline" -> {
+                criteria.setStatus(TaskStatus.TODO);
+                criteria.setPriority(Priority.HIGH);
+                criteria.setDeadlineFrom(BenchmarkData.BASE_TIME);
+                criteria.setDeadlineTo(BenchmarkData.BASE_TIME.plusDays(90));
+            }
+            case "sortByTitle" -> {
+                criteria.setSortBy("title");
+                criteria.setSortDirection("ASC");
+            }
+            case "fuzzy" -> {
+                // Опечатка: "отчот" вместо "отчет"
+                criteria.setKeyword("отчот");
+                criteria.setSearchMode(SearchMode.FUZZY);
+            }
+            default -> throw new IllegalArgumentException("Unknown criteria shape: " + shape);
+        }
+        return criteria;
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.benchmark;
+
+import org.example.search.SearchServiceApplication;
+import org.example.search.client.TaskServiceClient;
+import org.example.search.model.Task;
+import org.example.search.repository.TaskSearchRepository;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Поднимает контекст search-service без веб-сервера, Eureka и config-server,
+ * с H2 в режиме PostgreSQL вместо search_bd и заглушкой клиента task-service.
+ * Возможности, доступные только в PostgreSQL (tsvector, pg_trgm), при этом выключены:
+ * FULL_TEXT падает в поиск по ключевому слову, FUZZY считается на Java.
+ */
+final class SearchServiceContext implements AutoCloseable {
+
+    private static final int LOAD_BATCH = 10_000;
+
+    private final ConfigurableApplicationContext context;
+
+    private SearchServiceContext(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    static SearchServiceContext start(String... extraProperties) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                SearchServiceApplication.class, StubClientConfig.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        // Как в application.properties сервиса: Feign-клиенты объявлены дважды
+                        "spring.main.allow-bean-definition-overriding=true",
+                        "spring.cloud.config.enabled=false",
+                        "spring.cloud.discovery.enabled=false",
+                        "eureka.client.enabled=false",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false",
+                        "logging.level.root=WARN",
+                        // Бенчмарки меряют запросы, а не попадания в кэш
+                        "search.cache.enabled=false",
+                        "search.outbox.enabled=false",
+                        "search.sync.reconcile.interval-ms=3600000",
+                        "search.sync.upsert-batch-size=1000",
+                        // Таймаут TimeLimiter (1 с) подменял бы медленные запросы на 1M строк пустым fallback
+                        "spring.cloud.circuitbreaker.resilience4j.disable-time-limiter=true")
+                .properties(extraProperties)
+                .run();
+        return new SearchServiceContext(context);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    StubTaskServiceClient taskServiceClient() {
+        return (StubTaskServiceClient) context.getBean(TaskServiceClient.class);
+    }
+
+    void load(List<Task> tasks) {
+        TaskSearchRepository repository = bean(TaskSearchRepository.class);
+        for (int from = 0; from < tasks.size(); from += LOAD_BATCH) {
+            repository.upsertAll(tasks.subList(from, Math.min(from + LOAD_BATCH, tasks.size())));
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class StubClientConfig {
+
+        // Feign регистрирует клиент как primary-бин, поэтому заглушка подменяет само определение
+        @Bean
+        static BeanDefinitionRegistryPostProcessor stubTaskServiceClient() {
+            return registry -> {
+                for (String name : registry.getBeanDefinitionNames()) {
+                    if (TaskServiceClient.class.getName().equals(name)) {
+                        registry.removeBeanDefinition(name);
+                    }
+                }
+                registry.registerBeanDefinition(TaskServiceClient.class.getName(),
+                        new RootBeanDefinition(StubTaskServiceClient.class));
+            };
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.benchmark;
+
+import org.example.search.client.TaskServiceClient;
+import org.example.search.dto.OutboxBatch;
+import org.example.search.dto.TaskChanges;
+import org.example.search.model.Task;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Замена Feign-клиента task-service: отдает заранее подготовленные задачи без сети,
+ * чтобы бенчмарк синхронизации мерил только работу search-service.
+ */
+class StubTaskServiceClient implements TaskServiceClient {
+
+    private volatile List<Task> tasks = List.of();
+
+    void setTasks(List<Task> tasks) {
+        this.tasks = tasks;
+    }
+
+    @Override
+    public List<Task> getTasksByUser(Long userId) {
+        return tasks;
+    }
+
+    @Override
+    public ResponseEntity<TaskChanges> getTaskChanges(Long userId, LocalDateTime since, String ifNoneMatch) {
+        TaskChanges changes = new TaskChanges();
+        changes.setTasks(new ArrayList<>(tasks));
+        changes.setWatermark(tasks.stream().map(Task::getUpdatedAt).max(LocalDateTime::compareTo).orElse(null));
+        return ResponseEntity.ok(changes);
+    }
+
+    @Override
+    public OutboxBatch getOutboxEvents(Long afterId, int limit) {
+        return new OutboxBatch();
+    }
+
+    @Override
+    public Task getTaskById(Long id, Long userId) {
+        return tasks.stream()
+                .filter(task -> task.getId().equals(id))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.benchmark;
+
+import org.example.search.dto.SyncResult;
+import org.example.search.model.Task;
+import org.example.search.service.TaskDataSyncService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TaskDataSyncService.syncUserTasks} одного пользователя ({@code datasetSize / USERS} задач)
+ * в режиме полной сверки: task-service отдает тот же список (unchanged) или список,
+ * в котором изменилась каждая задача (changed). Сеть заменена заглушкой.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SyncBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int datasetSize;
+
+    @Param({"unchanged", "changed"})
+    private String scenario;
+
+    private SearchServiceContext context;
+    private TaskDataSyncService taskDataSyncService;
+    private List<Task> userTasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Каждый вызов - полная сверка, иначе после первого вызова пошла бы инкрементальная
+        context = SearchServiceContext.start("search.sync.incremental-enabled=false");
+        List<Task> tasks = BenchmarkData.tasks(datasetSize);
+        context.load(tasks);
+        userTasks = BenchmarkData.tasksOfUser(tasks, BenchmarkData.USER_ID);
+        context.taskServiceClient().setTasks(userTasks);
+        taskDataSyncService = context.bean(TaskDataSyncService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SyncResult syncUserTasks() {
+        if ("changed".equals(scenario)) {
+            userTasks.forEach(task -> task.setUpdatedAt(task.getUpdatedAt().plusSeconds(1)));
+        }
+        SyncResult result = taskDataSyncService.syncUserTasks(BenchmarkData.USER_ID);
+        if (result.failed()) {
+            throw new IllegalStateException("Sync failed");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.loadtest;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор с открытой моделью нагрузки: запросы отправляются по расписанию с целевой частотой,
+ * не дожидаясь ответов на предыдущие. Задержка считается от запланированного момента отправки,
+ * поэтому очередь внутри генератора при перегрузке тоже попадает в перцентили.
+ */
+final class LoadGenerator {
+
+    private final Scenario scenario;
+    private final List<VirtualUser> users;
+    private final LoadTestOptions options;
+    private final Operation[] weightedOperations;
+    private final Random random = new Random(42);
+
+    LoadGenerator(Scenario scenario, List<VirtualUser> users, LoadTestOptions options) {
+        this.scenario = scenario;
+        this.users = users;
+        this.options = options;
+        this.weightedOperations = options.mix().entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Operation[]::new);
+    }
+
+    RunStats run(Duration duration) throws InterruptedException {
+        RunStats stats = new RunStats(options.mix().keySet());
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.rps();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+            VirtualUser user = users.get(random.nextInt(users.size()));
+            if (operation == Operation.CHANGE_STATUS && user.randomTask(random) == null) {
+                operation = Operation.CREATE_TASK;
+            }
+            if (!inFlight.tryAcquire()) {
+                stats.dropped(operation);
+                continue;
+            }
+
+            Operation sent = operation;
+            try {
+                scenario.execute(sent, user, random).whenComplete((response, error) -> {
+                    stats.record(sent, System.nanoTime() - scheduled, error == null ? response.statusCode() : 0);
+                    inFlight.release();
+                });
+            } catch (RuntimeException e) {
+                stats.record(sent, System.nanoTime() - scheduled, 0);
+                inFlight.release();
+            }
+        }
+
+        // Дожидаемся ответов на уже отправленные запросы
+        long drainTimeout = options.timeout().plusSeconds(1).toMillis();
+        if (!inFlight.tryAcquire(options.maxInFlight(), drainTimeout, TimeUnit.MILLISECONDS)) {
+            System.out.println("Some requests did not complete within " + drainTimeout + " ms");
+        }
+        stats.finish(duration);
+        return stats;
+    }
+}
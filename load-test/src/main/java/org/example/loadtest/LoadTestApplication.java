@@ -0,0 +1,47 @@
+package org.example.loadtest;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Нагрузочный прогон Smart-Task через api-gateway.
+ * Без {@code --target} поднимает все сервисы в этой JVM (см. {@link LocalCluster}).
+ * Параметры - в {@link LoadTestOptions}, например:
+ * {@code java -jar load-test.jar --rps=300 --duration=PT2M --mix=login=5,create=25,status=20,search=50}
+ */
+public final class LoadTestApplication {
+
+    private LoadTestApplication() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        LocalCluster cluster = null;
+        try {
+            URI target = options.target();
+            if (target == null) {
+                System.out.println("Starting user-service, task-service, search-service and api-gateway...");
+                cluster = LocalCluster.start();
+                target = cluster.gatewayUri();
+            }
+            System.out.println("Gateway: " + target);
+
+            Scenario scenario = new Scenario(target, options.timeout());
+            System.out.printf("Preparing %d users with %d tasks each...%n", options.users(), options.tasksPerUser());
+            List<VirtualUser> users = scenario.prepareUsers(options.users(), options.tasksPerUser());
+
+            LoadGenerator generator = new LoadGenerator(scenario, users, options);
+            if (!options.warmup().isZero()) {
+                System.out.println("Warming up for " + options.warmup() + "...");
+                generator.run(options.warmup());
+            }
+            System.out.println("Measuring for " + options.duration() + "...");
+            generator.run(options.duration()).print(System.out, options.rps());
+        } finally {
+            if (cluster != null) {
+                cluster.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Параметры прогона из аргументов вида {@code --name=value}.
+ *
+ * @param target        адрес уже запущенного gateway; {@code null} - поднять сервисы в этой JVM
+ * @param rps           целевая интенсивность запросов в секунду
+ * @param warmup        разогрев, результаты которого не учитываются
+ * @param duration      длительность измерения
+ * @param users         число виртуальных пользователей
+ * @param tasksPerUser  задач, создаваемых каждому пользователю до начала нагрузки
+ * @param maxInFlight   предел одновременных запросов; сверх него запрос считается отброшенным
+ * @param timeout       таймаут одного запроса
+ * @param mix           доли операций в нагрузке
+ */
+record LoadTestOptions(URI target,
+                       int rps,
+                       Duration warmup,
+                       Duration duration,
+                       int users,
+                       int tasksPerUser,
+                       int maxInFlight,
+                       Duration timeout,
+                       Map<Operation, Integer> mix) {
+
+    private static final String DEFAULT_MIX = "login=5,create=25,status=20,search=50";
+
+    static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        String target = values.remove("target");
+        LoadTestOptions options = new LoadTestOptions(
+                target != null ? URI.create(target) : null,
+                Integer.parseInt(values.getOrDefault("rps", "100")),
+                Duration.parse(values.getOrDefault("warmup", "PT10S")),
+                Duration.parse(values.getOrDefault("duration", "PT60S")),
+                Integer.parseInt(values.getOrDefault("users", "50")),
+                Integer.parseInt(values.getOrDefault("tasks-per-user", "20")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+                Duration.parse(values.getOrDefault("timeout", "PT10S")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)));
+
+        values.keySet().removeAll(List.of("rps", "warmup", "duration", "users", "tasks-per-user",
+                "max-in-flight", "timeout", "mix"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.rps() <= 0 || options.users() <= 0) {
+            throw new IllegalArgumentException("rps and users must be positive");
+        }
+        return options;
+    }
+
+    // login=5,create=25,status=20,search=50
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            int weight = Integer.parseInt(pair[1]);
+            if (weight > 0) {
+                weights.put(Operation.byKey(pair[0]), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no operations: " + mix);
+        }
+        return weights;
+    }
+}
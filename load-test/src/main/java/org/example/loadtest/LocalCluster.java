@@ -0,0 +1,138 @@
+package org.example.loadtest;
+
+import org.example.gateway.ApiGatewayApplication;
+import org.example.search.SearchServiceApplication;
+import org.example.task.TaskServiceApplication;
+import org.example.user.UserServiceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Поднимает user-service, task-service, search-service и api-gateway в одной JVM на случайных портах.
+ * Каждый сервис - отдельный Spring-контекст со своей H2-базой в режиме PostgreSQL;
+ * адреса сервисов gateway и search-service получают через SimpleDiscoveryClient,
+ * а маршруты gateway задаются здесь же вместо config-server.
+ */
+final class LocalCluster implements AutoCloseable {
+
+    private static final String SERVLET_SECURITY = String.join(",",
+            "org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration",
+            "org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration",
+            "org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration",
+            "org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration");
+
+    private static final String GATEWAY_EXCLUDES = String.join(",",
+            "org.springframework.boot.autoconfigure.security.reactive.ReactiveSecurityAutoConfiguration",
+            "org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration",
+            "org.springframework.boot.actuate.autoconfigure.security.reactive.ReactiveManagementWebSecurityAutoConfiguration",
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+            "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration");
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private URI gatewayUri;
+
+    private LocalCluster() {
+    }
+
+    static LocalCluster start() {
+        LocalCluster cluster = new LocalCluster();
+        try {
+            // Security в classpath нужен только user-service, остальным сервисам его автоконфигурация не нужна
+            URI userService = cluster.startServlet(UserServiceApplication.class, "user",
+                    "jwt.secret=VGhpcyBpcyBhIHN1cGVyIHNlY3VyZSBzZWNyZXQga2V5IGZvciBKV1QgYXV0aGVudGljYXRpb24hISE=",
+                    "jwt.expiration=86400000");
+            URI taskService = cluster.startServlet(TaskServiceApplication.class, "task",
+                    "spring.autoconfigure.exclude=" + SERVLET_SECURITY);
+            URI searchService = cluster.startServlet(SearchServiceApplication.class, "search",
+                    "spring.autoconfigure.exclude=" + SERVLET_SECURITY,
+                    "spring.main.allow-bean-definition-overriding=true",
+                    instance("task-service", taskService));
+
+            ConfigurableApplicationContext gateway = cluster.run(new SpringApplicationBuilder(ApiGatewayApplication.class)
+                    .web(WebApplicationType.REACTIVE)
+                    .properties(commonProperties())
+                    .properties(
+                            "spring.autoconfigure.exclude=" + GATEWAY_EXCLUDES,
+                            instance("user-service", userService),
+                            instance("task-service", taskService),
+                            instance("search-service", searchService))
+                    .properties(route(0, "user-service", "/auth/**,/users/**"))
+                    .properties(route(1, "task-service", "/api/tasks/**"))
+                    .properties(route(2, "search-service", "/api/search/**")));
+            cluster.gatewayUri = uri(gateway);
+            return cluster;
+        } catch (RuntimeException e) {
+            cluster.close();
+            throw e;
+        }
+    }
+
+    URI gatewayUri() {
+        return gatewayUri;
+    }
+
+    private URI startServlet(Class<?> application, String database, String... properties) {
+        return uri(run(new SpringApplicationBuilder(application)
+                .web(WebApplicationType.SERVLET)
+                .properties(commonProperties())
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + database
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        // Исключает падение сервлетных контекстов из-за spring-webflux и gateway в classpath
+                        "spring.cloud.gateway.server.webflux.enabled=false")
+                .properties(properties)));
+    }
+
+    private ConfigurableApplicationContext run(SpringApplicationBuilder builder) {
+        ConfigurableApplicationContext context = builder.run();
+        contexts.add(context);
+        return context;
+    }
+
+    private static String[] commonProperties() {
+        return new String[]{
+                "spring.main.banner-mode=off",
+                "server.port=0",
+                "spring.cloud.config.enabled=false",
+                "springdoc.api-docs.enabled=false",
+                "springdoc.swagger-ui.enabled=false",
+                // Логи запросов на INFO сами по себе ограничили бы пропускную способность
+                "logging.level.root=WARN"
+        };
+    }
+
+    private static String instance(String serviceId, URI uri) {
+        return "spring.cloud.discovery.client.simple.instances." + serviceId + "[0].uri=" + uri;
+    }
+
+    private static String[] route(int index, String serviceId, String paths) {
+        String prefix = "spring.cloud.gateway.server.webflux.routes[" + index + "].";
+        return new String[]{
+                prefix + "id=" + serviceId,
+                prefix + "uri=lb://" + serviceId,
+                prefix + "predicates[0]=Path=" + paths
+        };
+    }
+
+    private static URI uri(ConfigurableApplicationContext context) {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return URI.create("http://localhost:" + port);
+    }
+
+    @Override
+    public void close() {
+        // В обратном порядке: gateway и search-service останавливаются раньше task-service
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+        contexts.clear();
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.loadtest;
+
+/**
+ * Операции нагрузки; {@code route} - строка отчета, {@code key} - имя в параметре {@code --mix}.
+ */
+enum Operation {
+    LOGIN("login", "POST /auth/login"),
+    CREATE_TASK("create", "POST /api/tasks"),
+    CHANGE_STATUS("status", "PATCH /api/tasks/{id}/status"),
+    ADVANCED_SEARCH("search", "POST /api/search/advanced");
+
+    private final String key;
+    private final String route;
+
+    Operation(String key, String route) {
+        this.key = key;
+        this.route = route;
+    }
+
+    String route() {
+        return route;
+    }
+
+    static Operation byKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation in mix: " + key);
+    }
+}
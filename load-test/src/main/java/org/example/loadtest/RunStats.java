@@ -0,0 +1,118 @@
+package org.example.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Результаты одного прогона по маршрутам: задержки в микросекундах, коды ошибок и отброшенные запросы.
+ */
+final class RunStats {
+
+    private final Map<Operation, RouteStats> routes = new EnumMap<>(Operation.class);
+    private Duration duration;
+
+    RunStats(Collection<Operation> operations) {
+        for (Operation operation : Operation.values()) {
+            // CHANGE_STATUS без задач заменяется на CREATE_TASK, поэтому она учитывается всегда
+            if (operations.contains(operation) || operation == Operation.CREATE_TASK) {
+                routes.put(operation, new RouteStats());
+            }
+        }
+    }
+
+    /**
+     * @param status код ответа или 0, если ответа нет (таймаут, ошибка соединения)
+     */
+    void record(Operation operation, long latencyNanos, int status) {
+        RouteStats route = routes.get(operation);
+        route.latencies.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (status / 100 == 2) {
+            route.succeeded.increment();
+        } else {
+            route.errors.computeIfAbsent(status, code -> new LongAdder()).increment();
+        }
+    }
+
+    void dropped(Operation operation) {
+        routes.get(operation).dropped.increment();
+    }
+
+    void finish(Duration duration) {
+        this.duration = duration;
+    }
+
+    void print(PrintStream out, int targetRps) {
+        double seconds = duration.toMillis() / 1000.0;
+        out.printf("%nTarget %d rps for %s%n", targetRps, duration);
+        out.printf("%-30s %9s %9s %8s %8s %9s %8s %8s %8s %8s %8s%n",
+                "Route", "Requests", "OK", "Errors", "Dropped", "OK rps", "p50", "p90", "p99", "p99.9", "max");
+
+        Histogram total = new Histogram(3);
+        long totalRequests = 0;
+        long totalSucceeded = 0;
+        long totalErrors = 0;
+        long totalDropped = 0;
+        for (Map.Entry<Operation, RouteStats> entry : routes.entrySet()) {
+            RouteStats route = entry.getValue();
+            Histogram latencies = route.latencies.copy();
+            long succeeded = route.succeeded.sum();
+            long errors = route.errorCount();
+            long dropped = route.dropped.sum();
+            printRow(out, entry.getKey().route(), latencies, succeeded, errors, dropped, seconds);
+
+            total.add(latencies);
+            totalRequests += latencies.getTotalCount();
+            totalSucceeded += succeeded;
+            totalErrors += errors;
+            totalDropped += dropped;
+        }
+        printRow(out, "TOTAL", total, totalSucceeded, totalErrors, totalDropped, seconds);
+        out.printf("Latencies in ms, measured from the scheduled send time; achieved %.1f of %d rps%n",
+                totalRequests / seconds, targetRps);
+
+        routes.forEach((operation, route) -> {
+            if (!route.errors.isEmpty()) {
+                Map<Integer, Long> byStatus = new TreeMap<>();
+                route.errors.forEach((status, count) -> byStatus.put(status, count.sum()));
+                out.printf("Errors %s by status (0 - no response): %s%n", operation.route(), byStatus);
+            }
+        });
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram latencies,
+                                 long succeeded, long errors, long dropped, double seconds) {
+        out.printf("%-30s %9d %9d %8d %8d %9.1f %8.1f %8.1f %8.1f %8.1f %8.1f%n",
+                name, latencies.getTotalCount(), succeeded, errors, dropped, succeeded / seconds,
+                millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(90)),
+                millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class RouteStats {
+        private final ConcurrentHistogram latencies = new ConcurrentHistogram(3);
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final ConcurrentMap<Integer, LongAdder> errors = new ConcurrentHashMap<>();
+
+        long errorCount() {
+            return errors.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+}
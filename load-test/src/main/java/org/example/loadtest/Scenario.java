@@ -0,0 +1,192 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Запросы операций нагрузки к gateway в том виде, в каком их отправляет фронтенд.
+ */
+final class Scenario {
+
+    private static final String[] WORDS = {
+            "отчет", "встреча", "релиз", "договор", "презентация", "бюджет", "клиент", "ревью",
+            "тестирование", "документация", "миграция", "поддержка", "дизайн", "аналитика", "план"
+    };
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "DONE"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "URGENT"};
+
+    private final URI baseUri;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    Scenario(URI baseUri, Duration timeout) {
+        this.baseUri = baseUri;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    CompletableFuture<HttpResponse<String>> execute(Operation operation, VirtualUser user, Random random) {
+        return switch (operation) {
+            case LOGIN -> send(post("/auth/login", Map.of("email", user.email(), "password", user.password()), null))
+                    .thenApply(response -> {
+                        if (isSuccess(response)) {
+                            user.token(read(response).path("token").asText());
+                        }
+                        return response;
+                    });
+            case CREATE_TASK -> createTask(user, random);
+            case CHANGE_STATUS -> send(request("/api/tasks/" + user.randomTask(random) + "/status?userId=" + user.id()
+                    + "&status=" + STATUSES[random.nextInt(STATUSES.length)], user.token())
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                    .build());
+            case ADVANCED_SEARCH -> send(post("/api/search/advanced", searchCriteria(user, random), user.token()));
+        };
+    }
+
+    /**
+     * Регистрирует пользователей нагрузки и создает каждому {@code tasksPerUser} задач.
+     * Регистрация упирается в BCrypt, поэтому выполняется в несколько потоков.
+     */
+    List<VirtualUser> prepareUsers(int count, int tasksPerUser) throws InterruptedException {
+        // Уникальные имена позволяют повторять прогон на одном и том же стенде
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(count, 8));
+        try {
+            List<Future<VirtualUser>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String name = "load-" + runId + "-" + i;
+                futures.add(executor.submit(() -> register(name, tasksPerUser)));
+            }
+            List<VirtualUser> users = new ArrayList<>();
+            for (Future<VirtualUser> future : futures) {
+                try {
+                    users.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Failed to prepare load users", e.getCause());
+                }
+            }
+            return users;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private VirtualUser register(String name, int tasksPerUser) throws IOException, InterruptedException {
+        String email = name + "@load.test";
+        String password = "password-" + name;
+        HttpResponse<String> response = httpClient.send(
+                post("/auth/register", Map.of("username", name, "email", email, "password", password), null),
+                HttpResponse.BodyHandlers.ofString());
+        if (!isSuccess(response)) {
+            throw new IllegalStateException("Registration failed with " + response.statusCode() + ": " + response.body());
+        }
+        JsonNode body = read(response);
+        VirtualUser user = new VirtualUser(body.path("user").path("id").asLong(), email, password,
+                body.path("token").asText());
+
+        Random random = new Random(name.hashCode());
+        for (int i = 0; i < tasksPerUser; i++) {
+            HttpResponse<String> created = createTask(user, random).join();
+            if (!isSuccess(created)) {
+                throw new IllegalStateException("Task creation failed with " + created.statusCode() + ": " + created.body());
+            }
+        }
+        return user;
+    }
+
+    private CompletableFuture<HttpResponse<String>> createTask(VirtualUser user, Random random) {
+        Map<String, Object> task = new LinkedHashMap<>();
+        task.put("title", word(random) + " " + word(random) + " " + random.nextInt(1000));
+        task.put("description", "Подготовить " + word(random) + " и согласовать " + word(random));
+        task.put("status", "TODO");
+        task.put("priority", PRIORITIES[random.nextInt(PRIORITIES.length)]);
+        task.put("deadline", LocalDateTime.now().plusDays(random.nextInt(60)).withNano(0).toString());
+        task.put("userId", user.id());
+        return send(post("/api/tasks", task, user.token()))
+                .thenApply(response -> {
+                    if (isSuccess(response)) {
+                        user.addTask(read(response).path("id").asLong());
+                    }
+                    return response;
+                });
+    }
+
+    // Примерно как форма поиска: фильтр по статусу, по ключевому слову или по слову и приоритету
+    private Map<String, Object> searchCriteria(VirtualUser user, Random random) {
+        Map<String, Object> criteria = new LinkedHashMap<>();
+        criteria.put("userId", user.id());
+        switch (random.nextInt(3)) {
+            case 0 -> criteria.put("status", STATUSES[random.nextInt(STATUSES.length)]);
+            case 1 -> criteria.put("keyword", word(random));
+            default -> {
+                criteria.put("keyword", word(random));
+                criteria.put("priority", PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            }
+        }
+        criteria.put("page", 0);
+        criteria.put("size", 20);
+        return criteria;
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest post(String path, Object body, String token) {
+        try {
+            return request(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(timeout);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private JsonNode read(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Зарегистрированный пользователь нагрузки: учетные данные, текущий токен и id его последних задач.
+ */
+final class VirtualUser {
+
+    // Смена статуса выбирает из последних созданных задач, старые забываются
+    private static final int MAX_TRACKED_TASKS = 200;
+
+    private final long id;
+    private final String email;
+    private final String password;
+    private volatile String token;
+    private final List<Long> taskIds = new ArrayList<>();
+
+    VirtualUser(long id, String email, String password, String token) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.token = token;
+    }
+
+    long id() {
+        return id;
+    }
+
+    String email() {
+        return email;
+    }
+
+    String password() {
+        return password;
+    }
+
+    String token() {
+        return token;
+    }
+
+    void token(String token) {
+        this.token = token;
+    }
+
+    synchronized void addTask(long taskId) {
+        if (taskIds.size() == MAX_TRACKED_TASKS) {
+            taskIds.remove(0);
+        }
+        taskIds.add(taskId);
+    }
+
+    /**
+     * Случайная задача пользователя или {@code null}, если задач еще нет.
+     */
+    synchronized Long randomTask(Random random) {
+        return taskIds.isEmpty() ? null : taskIds.get(random.nextInt(taskIds.size()));
+    }
+}
@@ -0,0 +1,85 @@
+-- Сравнение LIKE-поиска и полнотекстового поиска на 1 000 000 задач.
+--
+-- Запуск на пустой БД (не на search_bd):
+--   createdb search_bench
+--   psql -d search_bench -f search-service/benchmark/full-text-vs-like.sql
+--
+-- Скрипт создает копию схемы tasks с теми же индексами, что и search-service
+-- (включая db/postgresql/full-text.sql), и выводит EXPLAIN ANALYZE для каждого варианта.
+
+\timing on
+SET max_parallel_workers_per_gather = 0;
+
+DROP TABLE IF EXISTS tasks;
+CREATE TABLE tasks (
+    id          bigint PRIMARY KEY,
+    title       varchar(255) NOT NULL,
+    description varchar(1000),
+    status      varchar(20) NOT NULL,
+    priority    varchar(20) NOT NULL,
+    user_id     bigint NOT NULL,
+    deadline    timestamp,
+    created_at  timestamp NOT NULL,
+    updated_at  timestamp NOT NULL
+);
+
+-- 1 000 000 задач у 1 000 пользователей, заголовки и описания из словаря
+WITH words AS (
+    SELECT ARRAY['отчет', 'отчета', 'отчеты', 'встреча', 'встречи', 'купить', 'проверить',
+                 'исправить', 'ошибка', 'ошибки', 'релиз', 'сборка', 'клиент', 'договор',
+                 'презентация', 'бюджет', 'review', 'deploy', 'backend', 'frontend'] AS w
+)
+INSERT INTO tasks
+SELECT g,
+       w[1 + (g * 7) % 20] || ' ' || w[1 + (g * 13) % 20] || ' ' || w[1 + (g * 17) % 20],
+       repeat(w[1 + (g * 3) % 20] || ' ' || w[1 + (g * 11) % 20] || ' ', 10),
+       (ARRAY['TODO', 'IN_PROGRESS', 'DONE', 'CANCELLED', 'OVERDUE'])[1 + g % 5],
+       (ARRAY['LOW', 'MEDIUM', 'HIGH', 'URGENT'])[1 + g % 4],
+       1 + g % 1000,
+       now() + (g % 60 - 30) * interval '1 day',
+       now() - (g % 365) * interval '1 day',
+       now() - (g % 365) * interval '1 day'
+FROM generate_series(1, 1000000) AS g, words;
+
+CREATE INDEX idx_tasks_user ON tasks (user_id);
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_tasks_search_vector ON tasks USING GIN (search_vector);
+
+VACUUM ANALYZE tasks;
+
+-- 1. Текущий путь: LIKE по одному пользователю (как TaskSearchService.buildSpecification)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM tasks t
+WHERE t.user_id = 42
+  AND (lower(t.title) LIKE '%отчет%' OR lower(t.description) LIKE '%отчет%')
+ORDER BY t.created_at DESC
+LIMIT 20;
+
+-- 2. Полнотекстовый путь для того же пользователя, сортировка по релевантности
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM tasks t
+WHERE t.user_id = 42
+  AND t.search_vector @@ websearch_to_tsquery('russian', 'отчет')
+ORDER BY ts_rank(t.search_vector, websearch_to_tsquery('russian', 'отчет')) DESC, t.id DESC
+LIMIT 20;
+
+-- 3. LIKE без фильтра по пользователю: полный просмотр таблицы
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM tasks t
+WHERE lower(t.title) LIKE '%презентация%' OR lower(t.description) LIKE '%презентация%';
+
+-- 4. Полнотекстовый поиск без фильтра по пользователю: Bitmap Index Scan по GIN
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM tasks t
+WHERE t.search_vector @@ websearch_to_tsquery('russian', 'презентация');
+
+-- 5. Стемминг: "отчеты" находит "отчет"/"отчета", LIKE - нет
+SELECT
+    (SELECT count(*) FROM tasks WHERE user_id = 42 AND lower(title) LIKE '%отчеты%') AS like_matches,
+    (SELECT count(*) FROM tasks WHERE user_id = 42
+        AND search_vector @@ websearch_to_tsquery('russian', 'отчеты')) AS full_text_matches;
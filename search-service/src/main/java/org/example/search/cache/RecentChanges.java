@@ -0,0 +1,66 @@
+package org.example.search.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.search.event.TaskDataChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+/**
+ * Время последних изменений задач пользователей в этом экземпляре. Кэши и индексы
+ * проверяют по нему, можно ли сохранить прочитанное: чтение, начатое во время изменения
+ * или вскоре после его коммита, могло не увидеть его - транзакция еще не закоммичена
+ * или изменение еще не дошло до реплики.
+ * <p>
+ * С репликой окно равно {@code search.replica.max-lag} и должно быть больше ее отставания;
+ * без реплики учитываются только изменения, закоммиченные после начала чтения.
+ */
+@Component
+public class RecentChanges {
+
+    // Записи живут дольше окна на время самого долгого чтения
+    private static final Duration MAX_READ_TIME = Duration.ofMinutes(1);
+
+    private final long windowNanos;
+    private final Cache<Long, Long> changedAt;
+
+    public RecentChanges(@Value("${spring.datasource.replica.url:}") String replicaUrl,
+                         @Value("${search.replica.max-lag:PT5S}") Duration replicaMaxLag,
+                         @Value("${search.recent-changes.max-size:100000}") long maxSize) {
+        Duration window = StringUtils.hasText(replicaUrl) ? replicaMaxLag : Duration.ZERO;
+        this.windowNanos = window.toNanos();
+        this.changedAt = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(window.plus(MAX_READ_TIME))
+                .build();
+    }
+
+    /**
+     * Отметка начала чтения для {@link #isSettled}.
+     */
+    public long readStarted() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Возвращает {@code true}, если чтение, начатое в {@code readStarted}, гарантированно
+     * видело все изменения задач пользователя и его результат можно сохранить.
+     */
+    public boolean isSettled(Long userId, long readStarted) {
+        Long lastChange = changedAt.getIfPresent(userId);
+        return lastChange == null || lastChange - readStarted < -windowNanos;
+    }
+
+    // Раньше остальных слушателей: кэш, увидевший новую версию данных, должен увидеть и это изменение
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onTaskDataChanged(TaskDataChangedEvent event) {
+        changedAt.put(event.userId(), System.nanoTime());
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.search.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.search.event.TaskDataChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Ограниченный по размеру кэш результатов поиска. Ключ содержит версию данных пользователя:
+ * после синхронизации, изменившей его задачи, пользователь получает новую версию и все прежние
+ * записи пользователя становятся недостижимыми, а затем вытесняются. Версии выдаются одним
+ * счетчиком и тоже хранятся в ограниченном кэше: пользователь, чья версия вытеснена,
+ * получает новую, так что старые записи не могут снова стать достижимыми. Результаты чтений, которые могли
+ * не увидеть последнее изменение (см. {@link RecentChanges}), не сохраняются.
+ * Статистика доступна в actuator как метрики cache.* с тегом cache=searchResults.
+ */
+@Component
+public class SearchResultCache {
+
+    private final boolean enabled;
+    private final Cache<CacheKey, Object> cache;
+    private final Cache<Long, Long> versions;
+    private final AtomicLong lastVersion = new AtomicLong();
+    private final RecentChanges recentChanges;
+
+    public SearchResultCache(@Value("${search.cache.enabled:true}") boolean enabled,
+                             @Value("${search.cache.max-size:10000}") long maxSize,
+                             @Value("${search.cache.ttl:PT10M}") Duration ttl,
+                             MeterRegistry meterRegistry,
+                             RecentChanges recentChanges) {
+        this.enabled = enabled;
+        this.recentChanges = recentChanges;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Версия живет, пока к ней обращаются, и без обращений переживает записи, созданные с ней
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "searchResults");
+    }
+
+    /**
+     * Возвращает закэшированный результат операции или вычисляет и сохраняет его.
+     * {@code params} должны быть нормализованы и иметь корректные equals/hashCode.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, String operation, Object params, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CacheKey key = new CacheKey(userId, currentVersion(userId), operation, params);
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        long started = recentChanges.readStarted();
+        T result = loader.get();
+        if (result != null) {
+            // Сначала сохраняем, затем проверяем: изменение, отмеченное после проверки, увеличит версию
+            cache.put(key, result);
+            if (!recentChanges.isSettled(userId, started)) {
+                cache.asMap().remove(key, result);
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onTaskDataChanged(TaskDataChangedEvent event) {
+        versions.put(event.userId(), lastVersion.incrementAndGet());
+    }
+
+    private long currentVersion(Long userId) {
+        return versions.get(userId, id -> lastVersion.incrementAndGet());
+    }
+
+    private record CacheKey(Long userId, long version, String operation, Object params) {
+    }
+}
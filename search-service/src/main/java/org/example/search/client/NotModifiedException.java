@@ -0,0 +1,12 @@
+package org.example.search.client;
+
+/**
+ * Ответ 304 Not Modified от task-service на условный запрос (If-None-Match):
+ * данные не изменились с момента получения переданного ETag.
+ */
+public class NotModifiedException extends RuntimeException {
+
+    public NotModifiedException(String methodKey) {
+        super("Not modified: " + methodKey);
+    }
+}
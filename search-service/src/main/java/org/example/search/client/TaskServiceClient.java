@@ -1,11 +1,18 @@
 package org.example.search.client;
 
+import org.example.search.dto.OutboxBatch;
+import org.example.search.dto.TaskChanges;
 import org.example.search.model.Task;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @FeignClient(
@@ -18,6 +25,16 @@ public interface TaskServiceClient {
     @GetMapping
     List<Task> getTasksByUser(@RequestParam Long userId);
 
+    // С If-None-Match бросает NotModifiedException на ответ 304; ETag ответа - в заголовках
+    @GetMapping("/changes")
+    ResponseEntity<TaskChanges> getTaskChanges(@RequestParam Long userId,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+
+    @GetMapping("/outbox")
+    OutboxBatch getOutboxEvents(@RequestParam Long afterId, @RequestParam int limit);
+
     @GetMapping("/{id}")
     Task getTaskById(@PathVariable Long id, @RequestParam Long userId);
-}
\ No newline at end of file
+}
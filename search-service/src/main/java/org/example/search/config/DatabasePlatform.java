@@ -0,0 +1,34 @@
+package org.example.search.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Определяет СУБД search_bd, чтобы включать возможности, специфичные для PostgreSQL.
+ */
+@Component
+@Slf4j
+public class DatabasePlatform {
+
+    @Autowired
+    private DataSource dataSource;
+
+    private volatile Boolean postgres;
+
+    public boolean isPostgres() {
+        if (postgres == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                postgres = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+            } catch (SQLException e) {
+                log.warn("Could not determine database platform: {}", e.getMessage());
+                return false;
+            }
+        }
+        return postgres;
+    }
+}
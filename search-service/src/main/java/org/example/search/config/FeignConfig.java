@@ -1,9 +1,22 @@
 package org.example.search.config;
 
+import feign.codec.ErrorDecoder;
+import org.example.search.client.NotModifiedException;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 
 @Configuration
 @EnableFeignClients(basePackages = "org.example.search.client")
 public class FeignConfig {
-}
\ No newline at end of file
+
+    // Feign считает ошибкой любой ответ вне 2xx; 304 превращаем в отдельное исключение
+    @Bean
+    public ErrorDecoder errorDecoder() {
+        ErrorDecoder defaultDecoder = new ErrorDecoder.Default();
+        return (methodKey, response) -> response.status() == HttpStatus.NOT_MODIFIED.value()
+                ? new NotModifiedException(methodKey)
+                : defaultDecoder.decode(methodKey, response);
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.search.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Разделение чтения и записи между основной БД и репликой.
+ * Включается, если задан {@code spring.datasource.replica.url}; без него используется
+ * обычный DataSource из автоконфигурации.
+ * <p>
+ * Транзакции {@code @Transactional(readOnly = true)} помечают соединение как read-only,
+ * и {@link LazyConnectionDataSourceProxy} берет физическое соединение из пула реплики,
+ * остальные - из основного пула. Соединение выбирается при первом запросе, а не при
+ * открытии транзакции, поэтому флаг readOnly к этому моменту уже известен.
+ * Реплика может отставать: сразу после записи чтение может вернуть прежние данные.
+ */
+@Configuration
+@ConditionalOnProperty("spring.datasource.replica.url")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties primaryDataSourceProperties) {
+        HikariDataSource dataSource = primaryDataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    // Учетные данные реплики по умолчанию те же, что у основной БД
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties primaryDataSourceProperties,
+                                              @Qualifier("replicaDataSourceProperties") DataSourceProperties replica) {
+        if (!StringUtils.hasText(replica.getUsername())) {
+            replica.setUsername(primaryDataSourceProperties.determineUsername());
+            replica.setPassword(primaryDataSourceProperties.determinePassword());
+        }
+        HikariDataSource dataSource = replica.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
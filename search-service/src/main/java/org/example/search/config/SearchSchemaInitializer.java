@@ -0,0 +1,76 @@
+package org.example.search.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Дополняет созданную Hibernate схему search_bd объектами, которые нельзя описать
+ * JPA-аннотациями (tsvector-колонка, GIN-индексы, pg_trgm). Скрипты идемпотентны.
+ */
+@Component
+@Slf4j
+public class SearchSchemaInitializer implements ApplicationRunner {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Value("${search.full-text.enabled:true}")
+    private boolean fullTextEnabled;
+
+    @Value("${search.fuzzy.enabled:true}")
+    private boolean fuzzyEnabled;
+
+    private volatile boolean fullTextReady;
+
+    private volatile boolean trigramReady;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!databasePlatform.isPostgres()) {
+            log.info("Database is not PostgreSQL, full-text and trigram search are unavailable");
+            return;
+        }
+        if (fullTextEnabled) {
+            fullTextReady = execute("db/postgresql/full-text.sql");
+        }
+        if (fuzzyEnabled) {
+            trigramReady = execute("db/postgresql/trigram.sql");
+        }
+    }
+
+    /**
+     * Готова ли схема к полнотекстовому поиску.
+     */
+    public boolean isFullTextReady() {
+        return fullTextReady;
+    }
+
+    /**
+     * Установлено ли расширение pg_trgm и созданы ли триграммные индексы.
+     */
+    public boolean isTrigramReady() {
+        return trigramReady;
+    }
+
+    private boolean execute(String script) {
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource(script)).execute(dataSource);
+            log.info("Applied schema script: {}", script);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to apply schema script {}: {}", script, e.getMessage());
+            return false;
+        }
+    }
+}
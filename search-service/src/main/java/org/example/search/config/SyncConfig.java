@@ -0,0 +1,27 @@
+package org.example.search.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SyncConfig {
+
+    /**
+     * Пул потоков для фоновой синхронизации задач с task-service.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor syncExecutor(
+            @Value("${search.sync.executor.pool-size:4}") int poolSize,
+            @Value("${search.sync.executor.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("task-sync-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -5,17 +5,32 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.extern.slf4j.Slf4j;
+import org.example.search.dto.BadSearchRequestException;
+import org.example.search.dto.CursorPage;
+import org.example.search.dto.FacetCounts;
 import org.example.search.dto.SearchCriteria;
+import org.example.search.metrics.SearchMetrics;
 import org.example.search.model.Task;
-import org.example.search.service.TaskDataSyncService;
+import org.example.search.dto.SyncResult;
+import org.example.search.service.SyncFreshnessService;
 import org.example.search.service.TaskSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -24,11 +39,23 @@ import java.util.List;
 @Slf4j
 public class SearchController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    // Как часто сбрасывать буфер в ответ при потоковой выгрузке
+    private static final int STREAM_FLUSH_EVERY = 500;
+    // view=summary - списки без description (TaskSummary)
+    private static final String SUMMARY_VIEW = "summary";
+
     @Autowired
     private TaskSearchService taskSearchService;
 
     @Autowired
-    private TaskDataSyncService taskDataSyncService;
+    private SyncFreshnessService syncFreshnessService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SearchMetrics searchMetrics;
 
     @Operation(summary = "Расширенный поиск задач", description = "Поиск задач с фильтрацией, пагинацией и сортировкой")
     @ApiResponses(value = {
@@ -36,70 +63,181 @@ public class SearchController {
             @ApiResponse(responseCode = "400", description = "Неверные параметры запроса")
     })
     @PostMapping("/advanced")
-    public ResponseEntity<Page<Task>> advancedSearch(
+    public ResponseEntity<Page<?>> advancedSearch(
             @Parameter(description = "Критерии поиска", required = true)
-            @Valid @RequestBody SearchCriteria criteria) {
+            @Valid @RequestBody SearchCriteria criteria,
+            @Parameter(description = "Представление: full (по умолчанию) или summary - без описания")
+            @RequestParam(defaultValue = "full") String view) {
         log.info("Advanced search request: {}", criteria);
 
-        // Синхронизируем данные перед поиском
-        taskDataSyncService.syncUserTasks(criteria.getUserId());
+        // Обновляем данные пользователя, если они устарели
+        syncFreshnessService.ensureFresh(criteria.getUserId());
 
-        Page<Task> result = taskSearchService.searchTasks(criteria);
+        if (isSummary(view)) {
+            return ResponseEntity.ok(searchMetrics.record("advanced.summary", criteria,
+                    () -> taskSearchService.searchTaskSummaries(criteria)));
+        }
+        Page<Task> result = searchMetrics.record("advanced", criteria, () -> taskSearchService.searchTasks(criteria));
         return ResponseEntity.ok(result);
     }
 
+    @Operation(summary = "Расширенный поиск задач с курсорной пагинацией",
+            description = "Страница выбирается по курсору предыдущей (cursor), общее число считается только при withTotal=true")
+    @PostMapping("/advanced/cursor")
+    public ResponseEntity<CursorPage<Task>> advancedSearchByCursor(
+            @Parameter(description = "Критерии поиска", required = true)
+            @Valid @RequestBody SearchCriteria criteria) {
+        log.info("Advanced cursor search request: {}", criteria);
+
+        syncFreshnessService.ensureFresh(criteria.getUserId());
+
+        CursorPage<Task> result = searchMetrics.record("advanced.cursor", criteria,
+                () -> taskSearchService.searchTasksByCursor(criteria));
+        return ResponseEntity.ok(result);
+    }
+
+    @Operation(summary = "Счетчики задач по статусу, приоритету и дедлайну",
+            description = "Принимает те же фильтры, что и расширенный поиск; пагинация и сортировка игнорируются")
+    @PostMapping("/facets")
+    public ResponseEntity<FacetCounts> facets(
+            @Parameter(description = "Критерии поиска", required = true)
+            @Valid @RequestBody SearchCriteria criteria) {
+        log.info("Facets request: {}", criteria);
+
+        syncFreshnessService.ensureFresh(criteria.getUserId());
+
+        return ResponseEntity.ok(searchMetrics.record("facets", criteria, () -> taskSearchService.countFacets(criteria)));
+    }
+
     @Operation(summary = "Поиск задач без пагинации", description = "Поиск задач с фильтрацией и сортировкой без пагинации")
     @PostMapping("/simple")
-    public ResponseEntity<List<Task>> simpleSearch(
+    public ResponseEntity<List<?>> simpleSearch(
             @Parameter(description = "Критерии поиска", required = true)
-            @Valid @RequestBody SearchCriteria criteria) {
+            @Valid @RequestBody SearchCriteria criteria,
+            @Parameter(description = "Представление: full (по умолчанию) или summary - без описания")
+            @RequestParam(defaultValue = "full") String view) {
         log.info("Simple search request: {}", criteria);
 
-        // Синхронизируем данные перед поиском
-        taskDataSyncService.syncUserTasks(criteria.getUserId());
+        // Обновляем данные пользователя, если они устарели
+        syncFreshnessService.ensureFresh(criteria.getUserId());
 
-        List<Task> result = taskSearchService.searchTasksWithoutPagination(criteria);
+        if (isSummary(view)) {
+            return ResponseEntity.ok(searchMetrics.record("simple.summary", criteria,
+                    () -> taskSearchService.searchTaskSummariesWithoutPagination(criteria)));
+        }
+        List<Task> result = searchMetrics.record("simple", criteria,
+                () -> taskSearchService.searchTasksWithoutPagination(criteria));
         return ResponseEntity.ok(result);
     }
 
+    @Operation(summary = "Потоковая выгрузка задач без пагинации",
+            description = "Поиск задач с фильтрацией и сортировкой; результат отдается построчно в формате NDJSON")
+    @PostMapping(value = "/simple/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> simpleSearchStream(
+            @Parameter(description = "Критерии поиска", required = true)
+            @Valid @RequestBody SearchCriteria criteria) {
+        log.info("Streaming search request: {}", criteria);
+
+        syncFreshnessService.ensureFresh(criteria.getUserId());
+
+        ObjectWriter writer = objectMapper.writerFor(Task.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            int[] written = {0};
+            taskSearchService.streamTasks(criteria, task -> {
+                try {
+                    writer.writeValue(generator, task);
+                    generator.writeRaw('\n');
+                    if (++written[0] % STREAM_FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
     @Operation(summary = "Синхронизировать задачи пользователя", description = "Принудительная синхронизация задач из основного сервиса")
     @PostMapping("/sync/{userId}")
     public ResponseEntity<String> syncUserTasks(
             @Parameter(description = "ID пользователя", required = true)
             @PathVariable Long userId) {
         log.info("Manual sync requested for user: {}", userId);
-        taskDataSyncService.syncUserTasks(userId);
+        SyncResult result = syncFreshnessService.refresh(userId).join();
+        if (result.failed()) {
+            return ResponseEntity.internalServerError().body("Sync failed for user: " + userId);
+        }
         return ResponseEntity.ok("Sync completed for user: " + userId);
     }
 
     @Operation(summary = "Получить все задачи пользователя", description = "Возвращает все задачи пользователя")
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Task>> getUserTasks(
+    public ResponseEntity<List<?>> getUserTasks(
             @Parameter(description = "ID пользователя", required = true)
-            @PathVariable Long userId) {
+            @PathVariable Long userId,
+            @Parameter(description = "Представление: full (по умолчанию) или summary - без описания")
+            @RequestParam(defaultValue = "full") String view) {
         log.info("Get all tasks for user: {}", userId);
 
-        // Синхронизируем перед получением
-        taskDataSyncService.syncUserTasks(userId);
+        // Обновляем данные пользователя, если они устарели
+        syncFreshnessService.ensureFresh(userId);
 
-        List<Task> tasks = taskSearchService.findByUserId(userId);
+        if (isSummary(view)) {
+            return ResponseEntity.ok(searchMetrics.record("user.summary", "none",
+                    () -> taskSearchService.findSummariesByUserId(userId)));
+        }
+        List<Task> tasks = searchMetrics.record("user", "none", () -> taskSearchService.findByUserId(userId));
         return ResponseEntity.ok(tasks);
     }
 
     @Operation(summary = "Получить задачи пользователя с пагинацией", description = "Возвращает задачи пользователя с пагинацией")
     @GetMapping("/user/{userId}/page")
-    public ResponseEntity<Page<Task>> getUserTasksWithPagination(
+    public ResponseEntity<Page<?>> getUserTasksWithPagination(
             @Parameter(description = "ID пользователя", required = true)
             @PathVariable Long userId,
             @Parameter(description = "Номер страницы", example = "0")
             @RequestParam(defaultValue = "0") Integer page,
             @Parameter(description = "Размер страницы", example = "20")
-            @RequestParam(defaultValue = "20") Integer size) {
+            @RequestParam(defaultValue = "20") Integer size,
+            @Parameter(description = "Представление: full (по умолчанию) или summary - без описания")
+            @RequestParam(defaultValue = "full") String view) {
         log.info("Get tasks for user: {} with pagination: page={}, size={}", userId, page, size);
 
-        taskDataSyncService.syncUserTasks(userId);
+        syncFreshnessService.ensureFresh(userId);
 
-        Page<Task> tasks = taskSearchService.findByUserIdWithPagination(userId, page, size);
+        if (isSummary(view)) {
+            return ResponseEntity.ok(searchMetrics.record("user.page.summary", "none",
+                    () -> taskSearchService.findSummariesByUserIdWithPagination(userId, page, size)));
+        }
+        Page<Task> tasks = searchMetrics.record("user.page", "none",
+                () -> taskSearchService.findByUserIdWithPagination(userId, page, size));
+        return ResponseEntity.ok(tasks);
+    }
+
+    @Operation(summary = "Получить задачи пользователя с курсорной пагинацией",
+            description = "Возвращает задачи пользователя по убыванию даты создания, начиная после курсора")
+    @GetMapping("/user/{userId}/page/cursor")
+    public ResponseEntity<CursorPage<Task>> getUserTasksByCursor(
+            @Parameter(description = "ID пользователя", required = true)
+            @PathVariable Long userId,
+            @Parameter(description = "Курсор из предыдущего ответа (nextCursor)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы", example = "20")
+            @RequestParam(defaultValue = "20") Integer size,
+            @Parameter(description = "Посчитать общее количество задач")
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        log.info("Get tasks for user: {} with cursor: {}, size={}", userId, cursor, size);
+
+        syncFreshnessService.ensureFresh(userId);
+
+        CursorPage<Task> tasks = searchMetrics.record("user.page.cursor", "none",
+                () -> taskSearchService.findByUserIdWithCursor(userId, cursor, size, withTotal));
         return ResponseEntity.ok(tasks);
     }
 
@@ -112,39 +250,70 @@ public class SearchController {
             @RequestParam String keyword) {
         log.info("Search by keyword: userId={}, keyword={}", userId, keyword);
 
-        taskDataSyncService.syncUserTasks(userId);
+        syncFreshnessService.ensureFresh(userId);
 
-        List<Task> tasks = taskSearchService.findByKeyword(userId, keyword);
+        List<Task> tasks = searchMetrics.record("keyword", "keyword", () -> taskSearchService.findByKeyword(userId, keyword));
         return ResponseEntity.ok(tasks);
     }
 
+    @Operation(summary = "Подсказки названий задач",
+            description = "Названия задач пользователя, начинающиеся с префикса или содержащие слово с этим префиксом")
+    @GetMapping("/user/{userId}/suggest")
+    public ResponseEntity<List<String>> suggestTitles(
+            @Parameter(description = "ID пользователя", required = true)
+            @PathVariable Long userId,
+            @Parameter(description = "Введенная часть названия", required = true)
+            @RequestParam String prefix,
+            @Parameter(description = "Максимальное число подсказок", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        log.debug("Suggest titles: userId={}, prefix={}", userId, prefix);
+
+        syncFreshnessService.ensureFresh(userId);
+
+        return ResponseEntity.ok(searchMetrics.record("suggest", "prefix",
+                () -> taskSearchService.suggestTitles(userId, prefix, limit)));
+    }
+
     @Operation(summary = "Фильтр по статусу", description = "Фильтрация задач по статусу")
     @GetMapping("/user/{userId}/status")
-    public ResponseEntity<List<Task>> filterByStatus(
+    public ResponseEntity<List<?>> filterByStatus(
             @Parameter(description = "ID пользователя", required = true)
             @PathVariable Long userId,
             @Parameter(description = "Статус задачи", required = true, example = "IN_PROGRESS")
-            @RequestParam String status) {
+            @RequestParam String status,
+            @Parameter(description = "Представление: full (по умолчанию) или summary - без описания")
+            @RequestParam(defaultValue = "full") String view) {
         log.info("Filter by status: userId={}, status={}", userId, status);
 
-        taskDataSyncService.syncUserTasks(userId);
+        syncFreshnessService.ensureFresh(userId);
 
-        List<Task> tasks = taskSearchService.findByStatus(userId, status);
+        if (isSummary(view)) {
+            return ResponseEntity.ok(searchMetrics.record("status.summary", "status",
+                    () -> taskSearchService.findSummariesByStatus(userId, status)));
+        }
+        List<Task> tasks = searchMetrics.record("status", "status", () -> taskSearchService.findByStatus(userId, status));
         return ResponseEntity.ok(tasks);
     }
 
     @Operation(summary = "Фильтр по приоритету", description = "Фильтрация задач по приоритету")
     @GetMapping("/user/{userId}/priority")
-    public ResponseEntity<List<Task>> filterByPriority(
+    public ResponseEntity<List<?>> filterByPriority(
             @Parameter(description = "ID пользователя", required = true)
             @PathVariable Long userId,
             @Parameter(description = "Приоритет задачи", required = true, example = "HIGH")
-            @RequestParam String priority) {
+            @RequestParam String priority,
+            @Parameter(description = "Представление: full (по умолчанию) или summary - без описания")
+            @RequestParam(defaultValue = "full") String view) {
         log.info("Filter by priority: userId={}, priority={}", userId, priority);
 
-        taskDataSyncService.syncUserTasks(userId);
+        syncFreshnessService.ensureFresh(userId);
 
-        List<Task> tasks = taskSearchService.findByPriority(userId, priority);
+        if (isSummary(view)) {
+            return ResponseEntity.ok(searchMetrics.record("priority.summary", "priority",
+                    () -> taskSearchService.findSummariesByPriority(userId, priority)));
+        }
+        List<Task> tasks = searchMetrics.record("priority", "priority",
+                () -> taskSearchService.findByPriority(userId, priority));
         return ResponseEntity.ok(tasks);
     }
 
@@ -157,7 +326,7 @@ public class SearchController {
             @PathVariable Long taskId) {
         log.info("Get task by id: userId={}, taskId={}", userId, taskId);
 
-        taskDataSyncService.syncUserTasks(userId);
+        syncFreshnessService.ensureFresh(userId);
 
         return taskSearchService.findByIdAndUserId(taskId, userId)
                 .map(ResponseEntity::ok)
@@ -169,4 +338,18 @@ public class SearchController {
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Search Service is healthy");
     }
-}
\ No newline at end of file
+
+    /**
+     * Неверные параметры поиска - ошибка клиента, а не сервиса.
+     */
+    @ExceptionHandler(BadSearchRequestException.class)
+    public ResponseEntity<ProblemDetail> handleBadSearchRequest(BadSearchRequestException e) {
+        log.warn("Bad search request: {}", e.getMessage());
+        return ResponseEntity.badRequest()
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+    private static boolean isSummary(String view) {
+        return SUMMARY_VIEW.equalsIgnoreCase(view);
+    }
+}
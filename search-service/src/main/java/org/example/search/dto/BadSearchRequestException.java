@@ -0,0 +1,16 @@
+package org.example.search.dto;
+
+/**
+ * Неверные параметры поиска: курсор, поле или направление сортировки, размер страницы,
+ * статус или приоритет. Контроллер отвечает на нее 400 Bad Request.
+ */
+public class BadSearchRequestException extends RuntimeException {
+
+    public BadSearchRequestException(String message) {
+        super(message);
+    }
+
+    public BadSearchRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.search.dto;
+
+import java.util.List;
+
+/**
+ * Страница результатов при курсорной (keyset) пагинации.
+ * {@code nextCursor} передается в следующий запрос, {@code totalElements}
+ * заполняется только по запросу ({@code withTotal}).
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, boolean hasNext, Long totalElements) {
+}
@@ -0,0 +1,16 @@
+package org.example.search.dto;
+
+import org.example.search.model.Priority;
+import org.example.search.model.TaskStatus;
+
+import java.util.Map;
+
+/**
+ * Количество задач, подходящих под фильтры, в разрезе статуса, приоритета и дедлайна.
+ * Группы дедлайна: overdue (просрочены и не завершены), today, thisWeek (с понедельника).
+ */
+public record FacetCounts(long total,
+                          Map<TaskStatus, Long> byStatus,
+                          Map<Priority, Long> byPriority,
+                          Map<String, Long> byDeadline) {
+}
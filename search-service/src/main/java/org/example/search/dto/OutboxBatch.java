@@ -0,0 +1,14 @@
+package org.example.search.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class OutboxBatch {
+    private List<OutboxEvent> events = new ArrayList<>();
+    private Long lastId;
+    // Наименьший id, еще хранящийся в outbox; null, если outbox пуст
+    private Long oldestId;
+}
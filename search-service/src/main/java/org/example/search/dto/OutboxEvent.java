@@ -0,0 +1,20 @@
+package org.example.search.dto;
+
+import lombok.Data;
+import org.example.search.model.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие outbox task-service. {@code task} - состояние задачи на момент чтения
+ * или {@code null}, если задача удалена.
+ */
+@Data
+public class OutboxEvent {
+    private Long id;
+    private Long taskId;
+    private Long userId;
+    private String type;
+    private LocalDateTime createdAt;
+    private Task task;
+}
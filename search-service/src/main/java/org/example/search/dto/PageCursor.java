@@ -0,0 +1,42 @@
+package org.example.search.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Позиция последней строки страницы: значение поля сортировки и id.
+ * Клиенту передается как непрозрачная строка.
+ */
+public record PageCursor(String sortBy, String sortDirection, Long id, Object value) {
+
+    // Поля, по которым возможна keyset-пагинация (не null и с индексом вместе с id)
+    public static final Set<String> SORT_FIELDS = Set.of("createdAt", "updatedAt", "title", "id");
+
+    public String encode() {
+        String raw = sortBy + "|" + sortDirection + "|" + id + "|" + (value == null ? "" : value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !SORT_FIELDS.contains(parts[0])) {
+                throw new BadSearchRequestException("Malformed cursor");
+            }
+            String sortBy = parts[0];
+            Object value = switch (sortBy) {
+                case "createdAt", "updatedAt" -> LocalDateTime.parse(parts[3]);
+                case "title" -> parts[3];
+                default -> null;
+            };
+            return new PageCursor(sortBy, parts[1], Long.valueOf(parts[2]), value);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Base64 и Long.valueOf сообщают о неверном вводе через IllegalArgumentException
+            throw new BadSearchRequestException("Malformed cursor", e);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package org.example.search.dto;
 
 import org.example.search.model.Priority;
 import org.example.search.model.TaskStatus;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -10,14 +12,23 @@ import java.time.LocalDateTime;
 public class SearchCriteria {
     private Long userId;
     private String keyword;
+    private SearchMode searchMode = SearchMode.KEYWORD;
+    // Порог сходства для FUZZY (0..1), по умолчанию search.fuzzy.threshold
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private Double similarityThreshold;
     private TaskStatus status;
     private Priority priority;
     private LocalDateTime deadlineFrom;
     private LocalDateTime deadlineTo;
     private LocalDateTime createdFrom;
     private LocalDateTime createdTo;
+    // Помимо полей задачи поддерживается "relevance" (только для FULL_TEXT и FUZZY)
     private String sortBy = "createdAt";
     private String sortDirection = "DESC";
     private Integer page = 0;
     private Integer size = 20;
+    // Курсорная пагинация: курсор предыдущей страницы и нужен ли подсчет общего числа
+    private String cursor;
+    private boolean withTotal = false;
 }
\ No newline at end of file
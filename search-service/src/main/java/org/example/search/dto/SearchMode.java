@@ -0,0 +1,13 @@
+package org.example.search.dto;
+
+/**
+ * Способ поиска по ключевому слову.
+ */
+public enum SearchMode {
+    // Поиск подстроки / слов через инвертированный индекс
+    KEYWORD,
+    // Полнотекстовый поиск PostgreSQL со стеммингом и ранжированием
+    FULL_TEXT,
+    // Нечеткий поиск по триграммам (pg_trgm): опечатки и неверная раскладка клавиатуры
+    FUZZY
+}
@@ -0,0 +1,15 @@
+package org.example.search.dto;
+
+/**
+ * Итог синхронизации задач одного пользователя.
+ */
+public record SyncResult(boolean full, int upserted, int deleted, boolean failed) {
+
+    public static SyncResult failure() {
+        return new SyncResult(false, 0, 0, true);
+    }
+
+    public boolean changed() {
+        return upserted > 0 || deleted > 0;
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.search.dto;
+
+import lombok.Data;
+import org.example.search.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ответ task-service на запрос изменений задач пользователя.
+ */
+@Data
+public class TaskChanges {
+    private List<Task> tasks = new ArrayList<>();
+    private List<Long> deletedIds = new ArrayList<>();
+    private LocalDateTime watermark;
+}
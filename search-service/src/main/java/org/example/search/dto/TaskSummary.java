@@ -0,0 +1,18 @@
+package org.example.search.dto;
+
+import org.example.search.model.Priority;
+import org.example.search.model.Task;
+import org.example.search.model.TaskStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Краткое представление задачи для списков ({@code view=summary}): без description
+ * и служебных дат, выбирается из БД только этими колонками.
+ */
+public record TaskSummary(Long id, String title, TaskStatus status, Priority priority, LocalDateTime deadline) {
+
+    public static TaskSummary from(Task task) {
+        return new TaskSummary(task.getId(), task.getTitle(), task.getStatus(), task.getPriority(), task.getDeadline());
+    }
+}
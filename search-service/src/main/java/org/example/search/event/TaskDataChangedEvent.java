@@ -0,0 +1,12 @@
+package org.example.search.event;
+
+import org.example.search.model.Task;
+
+import java.util.List;
+
+/**
+ * Публикуется после того, как синхронизация изменила задачи пользователя в search_bd.
+ * Слушатели получают событие только после коммита транзакции синхронизации.
+ */
+public record TaskDataChangedEvent(Long userId, List<Task> upserted, List<Long> deletedIds) {
+}
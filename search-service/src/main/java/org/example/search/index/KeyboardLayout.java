@@ -0,0 +1,44 @@
+package org.example.search.index;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Перевод текста, набранного не в той раскладке: "ghbdtn" -> "привет" и обратно (ЙЦУКЕН/QWERTY).
+ */
+public final class KeyboardLayout {
+
+    private static final String LATIN = "qwertyuiop[]asdfghjkl;'zxcvbnm,.`";
+    private static final String CYRILLIC = "йцукенгшщзхъфывапролджэячсмитьбюё";
+
+    private static final Map<Character, Character> SWAP = new HashMap<>();
+
+    static {
+        for (int i = 0; i < LATIN.length(); i++) {
+            SWAP.put(LATIN.charAt(i), CYRILLIC.charAt(i));
+            SWAP.put(CYRILLIC.charAt(i), LATIN.charAt(i));
+        }
+    }
+
+    private KeyboardLayout() {
+    }
+
+    /**
+     * Возвращает текст в другой раскладке (в нижнем регистре) или {@code null},
+     * если в нем нет ни одной переводимой буквы.
+     */
+    public static String swap(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder result = new StringBuilder(text.length());
+        boolean changed = false;
+        for (char c : text.toLowerCase(Locale.ROOT).toCharArray()) {
+            Character swapped = SWAP.get(c);
+            changed |= swapped != null && Character.isLetter(c);
+            result.append(swapped != null ? swapped : c);
+        }
+        return changed ? result.toString() : null;
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.search.index;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.example.search.cache.RecentChanges;
+import org.example.search.event.TaskDataChangedEvent;
+import org.example.search.model.Task;
+import org.example.search.repository.TaskSearchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Инвертированный индекс по словам title/description, сужающий поиск по ключевым словам:
+ * {@code LIKE '%kw%'} проверяется только для задач, слова которых содержат слова запроса.
+ * Индекс пользователя строится из search_bd при первом запросе и далее поддерживается
+ * событиями синхронизации этого экземпляра. Изменения, примененные другим экземпляром,
+ * сюда не попадают, поэтому индекс перестраивается не реже чем раз в
+ * {@code search.keyword-index.ttl}; число хранимых индексов ограничено
+ * {@code search.keyword-index.max-users}. Индекс, при построении которого данные пользователя
+ * менялись, не сохраняется (см. {@link RecentChanges}).
+ */
+@Component
+@Slf4j
+public class KeywordIndex {
+
+    @Autowired
+    private TaskSearchRepository taskSearchRepository;
+
+    @Autowired
+    private RecentChanges recentChanges;
+
+    private final boolean enabled;
+    private final Cache<Long, UserTermIndex> indexes;
+
+    public KeywordIndex(@Value("${search.keyword-index.enabled:true}") boolean enabled,
+                        @Value("${search.keyword-index.max-users:1000}") long maxUsers,
+                        @Value("${search.keyword-index.ttl:PT5M}") Duration ttl) {
+        this.enabled = enabled;
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Возвращает id задач пользователя, в словах которых встречаются все слова запроса,
+     * в порядке возрастания id.
+     */
+    public long[] search(Long userId, String keyword) {
+        Set<String> terms = TextTokenizer.tokenize(keyword);
+        if (terms.isEmpty()) {
+            return new long[0];
+        }
+        UserTermIndex index = indexes.getIfPresent(userId);
+        return (index != null ? index : build(userId)).search(terms);
+    }
+
+    @TransactionalEventListener
+    public void onTaskDataChanged(TaskDataChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // Индекс еще не построен - он загрузит актуальные данные при первом запросе.
+        // Изменяется на месте: запись в кэш продлила бы срок жизни индекса
+        UserTermIndex index = indexes.getIfPresent(event.userId());
+        if (index != null) {
+            event.deletedIds().forEach(index::remove);
+            event.upserted().forEach(index::upsert);
+        }
+    }
+
+    private UserTermIndex build(Long userId) {
+        long started = recentChanges.readStarted();
+        UserTermIndex index = new UserTermIndex();
+        for (Task task : taskSearchRepository.findByUserId(userId)) {
+            index.upsert(task);
+        }
+        // Сначала сохраняем, затем проверяем: изменение, отмеченное после проверки, применится к индексу
+        indexes.put(userId, index);
+        if (!recentChanges.isSettled(userId, started)) {
+            indexes.asMap().remove(userId, index);
+            log.info("Keyword index for user: {} not cached, tasks changed during build", userId);
+            return index;
+        }
+        log.info("Built keyword index for user: {}", userId);
+        return index;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.search.index;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Отсортированный список идентификаторов задач на примитивном массиве.
+ */
+final class PostingList {
+
+    private static final long[] EMPTY = new long[0];
+
+    private long[] ids = new long[4];
+    private int size;
+
+    boolean add(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return false;
+        }
+        int insertAt = -pos - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+        return true;
+    }
+
+    boolean remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long[] toArray() {
+        return size == 0 ? EMPTY : Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Объединение списков без повторов за один k-путевой проход по куче курсоров.
+     */
+    static long[] union(List<PostingList> lists) {
+        if (lists.isEmpty()) {
+            return EMPTY;
+        }
+        if (lists.size() == 1) {
+            return lists.get(0).toArray();
+        }
+        int total = 0;
+        for (PostingList list : lists) {
+            total += list.size;
+        }
+        long[] result = new long[total];
+        int[] positions = new int[lists.size()];
+        PriorityQueue<Integer> heap = new PriorityQueue<>(lists.size(),
+                Comparator.comparingLong(i -> lists.get(i).ids[positions[i]]));
+        for (int i = 0; i < lists.size(); i++) {
+            if (!lists.get(i).isEmpty()) {
+                heap.add(i);
+            }
+        }
+        int k = 0;
+        while (!heap.isEmpty()) {
+            int i = heap.poll();
+            PostingList list = lists.get(i);
+            long id = list.ids[positions[i]];
+            if (k == 0 || result[k - 1] != id) {
+                result[k++] = id;
+            }
+            if (++positions[i] < list.size) {
+                heap.add(i);
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    /**
+     * Пересечение отсортированных массивов.
+     */
+    static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[k++] = a[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+}
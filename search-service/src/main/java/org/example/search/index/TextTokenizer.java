@@ -0,0 +1,45 @@
+package org.example.search.index;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Разбивает текст на нормализованные термы: нижний регистр, "ё" как "е",
+ * разделители - все, кроме букв и цифр.
+ */
+public final class TextTokenizer {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextTokenizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    /**
+     * Нормализует текст как фразу: разделители заменяются одним пробелом,
+     * ведущие удаляются, а завершающий сохраняется (пользователь начал следующее слово).
+     */
+    public static String normalizePhrase(String text) {
+        return SEPARATORS.matcher(normalize(text)).replaceAll(" ").stripLeading();
+    }
+
+    public static Set<String> tokenize(String... texts) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            for (String term : SEPARATORS.split(normalize(text))) {
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms;
+    }
+}
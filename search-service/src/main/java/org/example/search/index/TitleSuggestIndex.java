@@ -0,0 +1,87 @@
+package org.example.search.index;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.example.search.cache.RecentChanges;
+import org.example.search.event.TaskDataChangedEvent;
+import org.example.search.model.Task;
+import org.example.search.repository.TaskSearchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Префиксный индекс названий задач для подсказок при вводе. Как и {@link KeywordIndex},
+ * строится для пользователя при первом запросе, обновляется событиями синхронизации
+ * и ограничен по числу пользователей ({@code search.suggest.max-users}) и возрасту
+ * ({@code search.suggest.ttl}).
+ */
+@Component
+@Slf4j
+public class TitleSuggestIndex {
+
+    @Autowired
+    private TaskSearchRepository taskSearchRepository;
+
+    @Autowired
+    private RecentChanges recentChanges;
+
+    private final boolean enabled;
+    private final Cache<Long, UserTitleIndex> indexes;
+
+    public TitleSuggestIndex(@Value("${search.suggest.enabled:true}") boolean enabled,
+                             @Value("${search.suggest.max-users:1000}") long maxUsers,
+                             @Value("${search.suggest.ttl:PT5M}") Duration ttl) {
+        this.enabled = enabled;
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<String> suggest(Long userId, String prefix, int limit) {
+        String normalized = TextTokenizer.normalizePhrase(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        UserTitleIndex index = indexes.getIfPresent(userId);
+        return (index != null ? index : build(userId)).suggest(normalized, limit);
+    }
+
+    @TransactionalEventListener
+    public void onTaskDataChanged(TaskDataChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        UserTitleIndex index = indexes.getIfPresent(event.userId());
+        if (index != null) {
+            event.deletedIds().forEach(index::remove);
+            event.upserted().forEach(index::upsert);
+        }
+    }
+
+    private UserTitleIndex build(Long userId) {
+        long started = recentChanges.readStarted();
+        UserTitleIndex index = new UserTitleIndex();
+        for (Task task : taskSearchRepository.findByUserId(userId)) {
+            index.upsert(task);
+        }
+        indexes.put(userId, index);
+        if (!recentChanges.isSettled(userId, started)) {
+            indexes.asMap().remove(userId, index);
+            log.info("Title suggest index for user: {} not cached, tasks changed during build", userId);
+            return index;
+        }
+        log.info("Built title suggest index for user: {}", userId);
+        return index;
+    }
+}
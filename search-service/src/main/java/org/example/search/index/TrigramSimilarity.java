@@ -0,0 +1,53 @@
+package org.example.search.index;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Триграммное сходство на Java для баз без pg_trgm (H2 в тестах). Приближает
+ * {@code strict_word_similarity}: лучшее сходство запроса с подряд идущими словами текста
+ * того же количества, триграммы слов дополняются пробелами как в pg_trgm.
+ */
+public final class TrigramSimilarity {
+
+    private TrigramSimilarity() {
+    }
+
+    public static double wordSimilarity(String query, String text) {
+        List<String> queryWords = new ArrayList<>(TextTokenizer.tokenize(query));
+        List<String> textWords = new ArrayList<>(TextTokenizer.tokenize(text));
+        if (queryWords.isEmpty() || textWords.isEmpty()) {
+            return 0;
+        }
+        Set<String> queryTrigrams = trigrams(queryWords);
+        int window = Math.min(queryWords.size(), textWords.size());
+        double best = 0;
+        for (int start = 0; start + window <= textWords.size(); start++) {
+            best = Math.max(best, jaccard(queryTrigrams, trigrams(textWords.subList(start, start + window))));
+        }
+        return best;
+    }
+
+    private static Set<String> trigrams(List<String> words) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : words) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        int common = 0;
+        for (String trigram : a) {
+            if (b.contains(trigram)) {
+                common++;
+            }
+        }
+        return (double) common / (a.size() + b.size() - common);
+    }
+}
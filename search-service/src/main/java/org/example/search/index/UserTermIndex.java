@@ -0,0 +1,122 @@
+package org.example.search.index;
+
+import org.example.search.model.Task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Инвертированный индекс задач одного пользователя: терм -> список id задач.
+ * Словарь дополнительно проиндексирован по n-граммам (1-3 символа), поэтому термы,
+ * содержащие подстроку запроса, находятся без перебора всего словаря.
+ */
+final class UserTermIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, String[]> termsByTask = new HashMap<>();
+    // n-грамма длиной до GRAM -> термы, в которые она входит
+    private final Map<String, Set<String>> termsByGram = new HashMap<>();
+
+    synchronized void upsert(Task task) {
+        remove(task.getId());
+        Set<String> terms = TextTokenizer.tokenize(task.getTitle(), task.getDescription());
+        for (String term : terms) {
+            postings.computeIfAbsent(term, this::addTerm).add(task.getId());
+        }
+        termsByTask.put(task.getId(), terms.toArray(new String[0]));
+    }
+
+    synchronized void remove(Long taskId) {
+        String[] terms = termsByTask.remove(taskId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            if (list != null && list.remove(taskId) && list.isEmpty()) {
+                postings.remove(term);
+                removeTerm(term);
+            }
+        }
+    }
+
+    /**
+     * Возвращает отсортированные id задач, в которых каждый терм запроса
+     * входит в какое-либо слово. Любое совпадение {@code LIKE '%keyword%'}
+     * входит в результат, но не наоборот.
+     */
+    synchronized long[] search(Set<String> queryTerms) {
+        long[] result = null;
+        for (String term : queryTerms) {
+            List<PostingList> lists = new ArrayList<>();
+            for (String match : termsContaining(term)) {
+                lists.add(postings.get(match));
+            }
+            long[] matches = PostingList.union(lists);
+            result = result == null ? matches : PostingList.intersect(result, matches);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result == null ? new long[0] : result;
+    }
+
+    /**
+     * Термы словаря, содержащие {@code substring}. Короткая подстрока сама является
+     * n-граммой; для длинной берется наименьшее из множеств ее триграмм, и кандидаты проверяются.
+     */
+    private Set<String> termsContaining(String substring) {
+        if (substring.length() <= GRAM) {
+            return termsByGram.getOrDefault(substring, Set.of());
+        }
+        Set<String> smallest = null;
+        for (int i = 0; i + GRAM <= substring.length(); i++) {
+            Set<String> terms = termsByGram.get(substring.substring(i, i + GRAM));
+            if (terms == null) {
+                return Set.of();
+            }
+            if (smallest == null || terms.size() < smallest.size()) {
+                smallest = terms;
+            }
+        }
+        Set<String> result = new HashSet<>();
+        for (String term : smallest) {
+            if (term.contains(substring)) {
+                result.add(term);
+            }
+        }
+        return result;
+    }
+
+    private PostingList addTerm(String term) {
+        for (String gram : grams(term)) {
+            termsByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+        }
+        return new PostingList();
+    }
+
+    private void removeTerm(String term) {
+        for (String gram : grams(term)) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                termsByGram.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String term) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length <= GRAM; length++) {
+            for (int i = 0; i + length <= term.length(); i++) {
+                grams.add(term.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+}
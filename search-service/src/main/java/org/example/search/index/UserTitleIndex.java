@@ -0,0 +1,75 @@
+package org.example.search.index;
+
+import org.example.search.model.Task;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Отсортированные нормализованные названия задач одного пользователя для подсказок по префиксу.
+ * Кроме названия целиком хранятся его хвосты с начала каждого следующего слова,
+ * чтобы префикс находил и слова в середине названия.
+ */
+final class UserTitleIndex {
+
+    // Ключ: нормализованный текст + '\0' + id задачи, чтобы одинаковые названия не затирали друг друга
+    private final NavigableMap<String, Long> titleStarts = new TreeMap<>();
+    private final NavigableMap<String, Long> wordStarts = new TreeMap<>();
+    private final Map<Long, String> titles = new HashMap<>();
+
+    synchronized void upsert(Task task) {
+        remove(task.getId());
+        String phrase = TextTokenizer.normalizePhrase(task.getTitle()).stripTrailing();
+        if (phrase.isEmpty()) {
+            return;
+        }
+        titles.put(task.getId(), task.getTitle());
+        titleStarts.put(key(phrase, task.getId()), task.getId());
+        for (int i = phrase.indexOf(' '); i >= 0; i = phrase.indexOf(' ', i + 1)) {
+            wordStarts.put(key(phrase.substring(i + 1), task.getId()), task.getId());
+        }
+    }
+
+    synchronized void remove(Long taskId) {
+        String title = titles.remove(taskId);
+        if (title == null) {
+            return;
+        }
+        String phrase = TextTokenizer.normalizePhrase(title).stripTrailing();
+        titleStarts.remove(key(phrase, taskId));
+        for (int i = phrase.indexOf(' '); i >= 0; i = phrase.indexOf(' ', i + 1)) {
+            wordStarts.remove(key(phrase.substring(i + 1), taskId));
+        }
+    }
+
+    /**
+     * Возвращает до {@code limit} различных названий: сначала начинающиеся с префикса,
+     * затем содержащие слово с этим префиксом; внутри группы - по алфавиту.
+     */
+    synchronized List<String> suggest(String prefix, int limit) {
+        Set<String> result = new LinkedHashSet<>();
+        collect(titleStarts, prefix, limit, result);
+        collect(wordStarts, prefix, limit, result);
+        return List.copyOf(result);
+    }
+
+    private void collect(NavigableMap<String, Long> keys, String prefix, int limit, Set<String> result) {
+        Collection<Long> ids = keys.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        for (Long id : ids) {
+            if (result.size() >= limit) {
+                return;
+            }
+            result.add(titles.get(id));
+        }
+    }
+
+    private static String key(String phrase, Long taskId) {
+        return phrase + '\0' + taskId;
+    }
+}
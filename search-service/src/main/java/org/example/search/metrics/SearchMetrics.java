@@ -0,0 +1,115 @@
+package org.example.search.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.example.search.dto.CursorPage;
+import org.example.search.dto.SearchCriteria;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Таймеры запросов поиска в разрезе эндпоинта, набора заданных фильтров,
+ * режима поиска и размера результата. Время сериализации ответа входит только
+ * в {@code http.server.requests}, поэтому его можно получить как разность.
+ */
+@Component
+public class SearchMetrics {
+
+    private static final String QUERY_TIMER = "search.query";
+
+    private final MeterRegistry meterRegistry;
+
+    public SearchMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Выполняет поиск по критериям и записывает его длительность.
+     */
+    public <T> T record(String endpoint, SearchCriteria criteria, Supplier<T> search) {
+        return record(endpoint, filters(criteria), String.valueOf(criteria.getSearchMode()), search);
+    }
+
+    /**
+     * Выполняет поиск с фиксированным набором фильтров (GET-эндпоинты) и записывает его длительность.
+     */
+    public <T> T record(String endpoint, String filters, Supplier<T> search) {
+        return record(endpoint, filters, "KEYWORD", search);
+    }
+
+    private <T> T record(String endpoint, String filters, String mode, Supplier<T> search) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        String sizeBucket = "none";
+        try {
+            T result = search.get();
+            outcome = "success";
+            sizeBucket = sizeBucket(result);
+            return result;
+        } finally {
+            sample.stop(Timer.builder(QUERY_TIMER)
+                    .description("Search query execution time without freshness check and serialization")
+                    .tags(Tags.of("endpoint", endpoint, "filters", filters, "mode", mode,
+                            "size", sizeBucket, "outcome", outcome))
+                    .register(meterRegistry));
+        }
+    }
+
+    // Заданные поля критериев в фиксированном порядке: не больше 2^7 значений тега
+    private static String filters(SearchCriteria criteria) {
+        StringJoiner filters = new StringJoiner("+");
+        if (criteria.getKeyword() != null && !criteria.getKeyword().trim().isEmpty()) {
+            filters.add("keyword");
+        }
+        if (criteria.getStatus() != null) {
+            filters.add("status");
+        }
+        if (criteria.getPriority() != null) {
+            filters.add("priority");
+        }
+        if (criteria.getDeadlineFrom() != null) {
+            filters.add("deadlineFrom");
+        }
+        if (criteria.getDeadlineTo() != null) {
+            filters.add("deadlineTo");
+        }
+        if (criteria.getCreatedFrom() != null) {
+            filters.add("createdFrom");
+        }
+        if (criteria.getCreatedTo() != null) {
+            filters.add("createdTo");
+        }
+        return filters.length() == 0 ? "none" : filters.toString();
+    }
+
+    private static String sizeBucket(Object result) {
+        int size;
+        if (result instanceof Page<?> page) {
+            size = page.getNumberOfElements();
+        } else if (result instanceof CursorPage<?> page) {
+            size = page.content().size();
+        } else if (result instanceof Collection<?> collection) {
+            size = collection.size();
+        } else {
+            return "none";
+        }
+        if (size == 0) {
+            return "0";
+        }
+        if (size <= 10) {
+            return "1-10";
+        }
+        if (size <= 100) {
+            return "11-100";
+        }
+        if (size <= 1000) {
+            return "101-1000";
+        }
+        return "1000+";
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.search.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Позиция потребителя в outbox task-service: id последнего примененного события.
+ */
+@Entity
+@Table(name = "replication_offset")
+@Data
+public class ReplicationOffset {
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+}
@@ -0,0 +1,30 @@
+package org.example.search.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Состояние синхронизации пользователя: водяной знак по {@code updatedAt}
+ * последней загруженной из task-service задачи.
+ */
+@Entity
+@Table(name = "sync_state")
+@Data
+public class SyncState {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Максимальный updatedAt/deletedAt среди примененных изменений (часы task-service)
+    @Column(name = "watermark")
+    private LocalDateTime watermark;
+
+    // ETag последнего ответа task-service на запрос изменений, отправляется в If-None-Match
+    @Column(name = "etag", length = 100)
+    private String etag;
+
+    @Column(name = "last_synced_at", nullable = false)
+    private LocalDateTime lastSyncedAt;
+}
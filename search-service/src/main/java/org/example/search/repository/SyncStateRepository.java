@@ -0,0 +1,16 @@
+package org.example.search.repository;
+
+import org.example.search.model.SyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SyncStateRepository extends JpaRepository<SyncState, Long> {
+
+    // Следующая синхронизация каждого пользователя будет полной
+    @Modifying
+    @Query("UPDATE SyncState s SET s.watermark = NULL, s.etag = NULL")
+    int clearWatermarks();
+}
@@ -12,15 +12,25 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface TaskSearchRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+public interface TaskSearchRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>,
+        TaskSearchRepositoryCustom {
 
     // Базовые методы поиска
     List<Task> findByUserId(Long userId);
     Page<Task> findByUserId(Long userId, Pageable pageable);
 
+    // Идентификаторы задач пользователя (для сверки при полной синхронизации)
+    @Query("SELECT t.id FROM Task t WHERE t.userId = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    // Пары (id, updatedAt) для сравнения версий без загрузки сущностей
+    @Query("SELECT t.id, t.updatedAt FROM Task t WHERE t.id IN :ids")
+    List<Object[]> findVersionsByIds(@Param("ids") List<Long> ids);
+
     // Поиск по статусу
     List<Task> findByUserIdAndStatus(Long userId, TaskStatus status);
 
@@ -32,4 +42,16 @@ public interface TaskSearchRepository extends JpaRepository<Task, Long>, JpaSpec
             "(LOWER(t.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(t.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     List<Task> findByUserIdAndKeyword(@Param("userId") Long userId, @Param("keyword") String keyword);
+
+    // То же среди кандидатов из инвертированного индекса: результат совпадает с поиском без индекса
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids AND t.userId = :userId AND " +
+            "(LOWER(t.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(t.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    List<Task> findByUserIdAndKeywordAndIdIn(@Param("userId") Long userId, @Param("keyword") String keyword,
+                                             @Param("ids") Collection<Long> ids);
+
+    // Названия, начинающиеся с префикса (префикс в нижнем регистре, спецсимволы LIKE экранированы '\')
+    @Query("SELECT DISTINCT t.title FROM Task t WHERE t.userId = :userId AND " +
+            "LOWER(t.title) LIKE CONCAT(:prefix, '%') ESCAPE '\\' ORDER BY t.title")
+    List<String> findTitlesByPrefix(@Param("userId") Long userId, @Param("prefix") String prefix, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package org.example.search.repository;
+
+import org.example.search.dto.FacetCounts;
+import org.example.search.dto.SearchCriteria;
+import org.example.search.dto.TaskSummary;
+import org.example.search.model.Task;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Запросы, которые не выражаются через Specification: используют возможности PostgreSQL.
+ */
+public interface TaskSearchRepositoryCustom {
+
+    /**
+     * Полнотекстовый поиск по колонке search_vector с фильтрами из критериев.
+     * Для неразбитого на страницы {@code pageable} запрос подсчета не выполняется.
+     */
+    Page<Task> fullTextSearch(SearchCriteria criteria, Pageable pageable);
+
+    /**
+     * Нечеткий поиск по триграммам pg_trgm в title/description (и в другой раскладке клавиатуры)
+     * с порогом {@code strict_word_similarity}. Сортировка "relevance" - по сходству.
+     */
+    Page<Task> fuzzySearch(SearchCriteria criteria, double threshold, Pageable pageable);
+
+    /**
+     * Потоковое чтение задач по спецификации с заданным fetch size. Каждая задача
+     * отсоединяется от контекста после чтения, поэтому память не растет с размером выборки.
+     * Поток нужно закрыть и читать внутри транзакции.
+     */
+    Stream<Task> streamAll(Specification<Task> spec, Sort sort, int fetchSize);
+
+    /**
+     * Выбирает по спецификации только колонки {@link TaskSummary}, не загружая сущности.
+     * Для неразбитого на страницы {@code pageable} запрос подсчета не выполняется.
+     */
+    Page<TaskSummary> findSummaries(Specification<Task> spec, Pageable pageable);
+
+    /**
+     * Считает задачи по статусу, приоритету и группам дедлайна одним агрегирующим запросом.
+     */
+    FacetCounts countFacets(Specification<Task> spec, LocalDateTime now);
+
+    /**
+     * Вставляет или обновляет задачи пачками JDBC-операторов
+     * ({@code INSERT ... ON CONFLICT (id) DO UPDATE} в PostgreSQL) без предварительного SELECT.
+     * Изменения не попадают в контекст персистентности текущей транзакции.
+     */
+    void upsertAll(List<Task> tasks);
+}
@@ -0,0 +1,317 @@
+package org.example.search.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.example.search.config.DatabasePlatform;
+import org.example.search.dto.FacetCounts;
+import org.example.search.dto.SearchCriteria;
+import org.example.search.dto.TaskSummary;
+import org.example.search.index.KeyboardLayout;
+import org.example.search.model.Priority;
+import org.example.search.model.Task;
+import org.example.search.model.TaskStatus;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class TaskSearchRepositoryImpl implements TaskSearchRepositoryCustom {
+
+    private static final String TS_QUERY = "websearch_to_tsquery('russian', :keyword)";
+    private static final String TS_RANK = "ts_rank(t.search_vector, " + TS_QUERY + ")";
+
+    // Запрос как есть и в другой раскладке; lower(...) совпадает с выражением триграммных индексов
+    private static final String TRGM_MATCH = ":keyword <<% lower(t.title) OR :keyword <<% lower(t.description) " +
+            "OR :swapped <<% lower(t.title) OR :swapped <<% lower(t.description)";
+    private static final String TRGM_SIMILARITY = "greatest(" +
+            "strict_word_similarity(:keyword, lower(t.title)), strict_word_similarity(:keyword, lower(t.description)), " +
+            "strict_word_similarity(:swapped, lower(t.title)), strict_word_similarity(:swapped, lower(t.description)))";
+
+    // Допустимые поля сортировки и соответствующие им колонки
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "t.id",
+            "title", "t.title",
+            "status", "t.status",
+            "priority", "t.priority",
+            "deadline", "t.deadline",
+            "createdAt", "t.created_at",
+            "updatedAt", "t.updated_at"
+    );
+
+    private static final String UPSERT_COLUMNS =
+            "id, title, description, status, priority, user_id, deadline, created_at, updated_at";
+
+    private static final String POSTGRES_UPSERT = "INSERT INTO tasks (" + UPSERT_COLUMNS + ") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET title = EXCLUDED.title, description = EXCLUDED.description, " +
+            "status = EXCLUDED.status, priority = EXCLUDED.priority, user_id = EXCLUDED.user_id, " +
+            "deadline = EXCLUDED.deadline, created_at = EXCLUDED.created_at, updated_at = EXCLUDED.updated_at";
+
+    // H2 (тесты) не поддерживает ON CONFLICT
+    private static final String MERGE_UPSERT = "MERGE INTO tasks (" + UPSERT_COLUMNS + ") KEY (id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Value("${search.sync.upsert-batch-size:500}")
+    private int upsertBatchSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Task> fullTextSearch(SearchCriteria criteria, Pageable pageable) {
+        Map<String, Object> params = new HashMap<>();
+        String where = buildWhere(criteria, params)
+                + " AND t.search_vector @@ " + TS_QUERY;
+        params.put("keyword", criteria.getKeyword());
+
+        return nativeSearch(where, params, buildOrderBy(criteria, TS_RANK), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Task> fuzzySearch(SearchCriteria criteria, double threshold, Pageable pageable) {
+        // Порог оператора <<% действует до конца текущей транзакции
+        entityManager.createNativeQuery(
+                        "SELECT set_config('pg_trgm.strict_word_similarity_threshold', :threshold, true)")
+                .setParameter("threshold", String.valueOf(threshold))
+                .getSingleResult();
+
+        String keyword = criteria.getKeyword().trim().toLowerCase();
+        String swapped = KeyboardLayout.swap(keyword);
+        Map<String, Object> params = new HashMap<>();
+        String where = buildWhere(criteria, params) + " AND (" + TRGM_MATCH + ")";
+        params.put("keyword", keyword);
+        params.put("swapped", swapped != null ? swapped : keyword);
+
+        return nativeSearch(where, params, buildOrderBy(criteria, TRGM_SIMILARITY), pageable);
+    }
+
+    @Override
+    public Stream<Task> streamAll(Specification<Task> spec, Sort sort, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> root = query.from(Task.class);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TaskSummary> findSummaries(Specification<Task> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskSummary> query = cb.createQuery(TaskSummary.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(cb.construct(TaskSummary.class, root.get("id"), root.get("title"),
+                root.get("status"), root.get("priority"), root.get("deadline")));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<TaskSummary> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<TaskSummary> content = typedQuery.getResultList();
+
+        if (!pageable.isPaged()) {
+            return new PageImpl<>(content);
+        }
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Task> countRoot = countQuery.from(Task.class);
+        countQuery.select(cb.count(countRoot));
+        Predicate countPredicate = spec.toPredicate(countRoot, countQuery, cb);
+        if (countPredicate != null) {
+            countQuery.where(countPredicate);
+        }
+        long total = entityManager.createQuery(countQuery).getSingleResult();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @Override
+    public void upsertAll(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        String sql = databasePlatform.isPostgres() ? POSTGRES_UPSERT : MERGE_UPSERT;
+        jdbcTemplate.batchUpdate(sql, tasks, upsertBatchSize, (ps, task) -> {
+            ps.setLong(1, task.getId());
+            ps.setString(2, task.getTitle());
+            ps.setString(3, task.getDescription());
+            ps.setString(4, task.getStatus().name());
+            ps.setString(5, task.getPriority().name());
+            ps.setLong(6, task.getUserId());
+            if (task.getDeadline() != null) {
+                ps.setTimestamp(7, Timestamp.valueOf(task.getDeadline()));
+            } else {
+                ps.setNull(7, Types.TIMESTAMP);
+            }
+            ps.setTimestamp(8, Timestamp.valueOf(task.getCreatedAt()));
+            ps.setTimestamp(9, Timestamp.valueOf(task.getUpdatedAt()));
+        });
+    }
+
+    @Override
+    public FacetCounts countFacets(Specification<Task> spec, LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        LocalDateTime startOfDay = today.atStartOfDay();
+        LocalDateTime startOfWeek = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> root = query.from(Task.class);
+        Path<TaskStatus> status = root.get("status");
+        Path<Priority> priority = root.get("priority");
+        Path<LocalDateTime> deadline = root.get("deadline");
+
+        Predicate overdue = cb.and(cb.lessThan(deadline, now),
+                status.in(TaskStatus.DONE, TaskStatus.CANCELLED).not());
+        Predicate dueToday = cb.and(cb.greaterThanOrEqualTo(deadline, startOfDay),
+                cb.lessThan(deadline, startOfDay.plusDays(1)));
+        Predicate dueThisWeek = cb.and(cb.greaterThanOrEqualTo(deadline, startOfWeek),
+                cb.lessThan(deadline, startOfWeek.plusWeeks(1)));
+
+        query.multiselect(status, priority, cb.count(root),
+                countIf(cb, overdue), countIf(cb, dueToday), countIf(cb, dueThisWeek));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(status, priority);
+
+        long total = 0;
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+        Map<String, Long> byDeadline = new LinkedHashMap<>();
+        byDeadline.put("overdue", 0L);
+        byDeadline.put("today", 0L);
+        byDeadline.put("thisWeek", 0L);
+
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            long count = row.get(2, Long.class);
+            total += count;
+            byStatus.merge(row.get(0, TaskStatus.class), count, Long::sum);
+            byPriority.merge(row.get(1, Priority.class), count, Long::sum);
+            byDeadline.merge("overdue", row.get(3, Long.class), Long::sum);
+            byDeadline.merge("today", row.get(4, Long.class), Long::sum);
+            byDeadline.merge("thisWeek", row.get(5, Long.class), Long::sum);
+        }
+        return new FacetCounts(total, byStatus, byPriority, byDeadline);
+    }
+
+    private static Expression<Long> countIf(CriteriaBuilder cb, Predicate condition) {
+        return cb.sum(cb.<Long>selectCase().when(condition, 1L).otherwise(0L));
+    }
+
+    private String buildWhere(SearchCriteria criteria, Map<String, Object> params) {
+        StringBuilder where = new StringBuilder("t.user_id = :userId");
+        params.put("userId", criteria.getUserId());
+
+        if (criteria.getStatus() != null) {
+            where.append(" AND t.status = :status");
+            params.put("status", criteria.getStatus().name());
+        }
+        if (criteria.getPriority() != null) {
+            where.append(" AND t.priority = :priority");
+            params.put("priority", criteria.getPriority().name());
+        }
+        if (criteria.getDeadlineFrom() != null) {
+            where.append(" AND t.deadline >= :deadlineFrom");
+            params.put("deadlineFrom", criteria.getDeadlineFrom());
+        }
+        if (criteria.getDeadlineTo() != null) {
+            where.append(" AND t.deadline <= :deadlineTo");
+            params.put("deadlineTo", criteria.getDeadlineTo());
+        }
+        if (criteria.getCreatedFrom() != null) {
+            where.append(" AND t.created_at >= :createdFrom");
+            params.put("createdFrom", criteria.getCreatedFrom());
+        }
+        if (criteria.getCreatedTo() != null) {
+            where.append(" AND t.created_at <= :createdTo");
+            params.put("createdTo", criteria.getCreatedTo());
+        }
+        return where.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Page<Task> nativeSearch(String where, Map<String, Object> params, String orderBy, Pageable pageable) {
+        String sql = "SELECT t.* FROM tasks t WHERE " + where + " ORDER BY " + orderBy;
+        Query query = entityManager.createNativeQuery(sql, Task.class);
+        params.forEach(query::setParameter);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<Task> content = query.getResultList();
+
+        if (!pageable.isPaged()) {
+            return new PageImpl<>(content);
+        }
+        Query countQuery = entityManager.createNativeQuery("SELECT count(*) FROM tasks t WHERE " + where);
+        params.forEach(countQuery::setParameter);
+        long total = ((Number) countQuery.getSingleResult()).longValue();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private String buildOrderBy(SearchCriteria criteria, String relevance) {
+        if ("relevance".equals(criteria.getSortBy())) {
+            return relevance + " DESC, t.id DESC";
+        }
+        String column = SORT_COLUMNS.get(criteria.getSortBy());
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sort field: " + criteria.getSortBy());
+        }
+        String direction = "ASC".equalsIgnoreCase(criteria.getSortDirection()) ? "ASC" : "DESC";
+        return column + " " + direction + ", t.id " + direction;
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.search.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.search.client.TaskServiceClient;
+import org.example.search.dto.OutboxBatch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Опрашивает outbox task-service и применяет события к search_bd пачками.
+ * Пока потребитель успевает за outbox, чтение не требует синхронизации с task-service.
+ * Если события после позиции потребителя уже удалены по сроку хранения (потребитель
+ * долго не работал), их пропуск нельзя восполнить из outbox: все пользователи
+ * синхронизируются заново полностью.
+ */
+@Service
+@Slf4j
+public class OutboxRelayConsumer {
+
+    private static final String CONSUMER = "task-service-outbox";
+
+    @Autowired
+    private TaskServiceClient taskServiceClient;
+
+    @Autowired
+    private TaskDataSyncService taskDataSyncService;
+
+    @Autowired
+    private SyncFreshnessService syncFreshnessService;
+
+    @Value("${search.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.outbox.batch-size:500}")
+    private int batchSize;
+
+    // Сколько пачек разбирать за один опрос, чтобы не держать поток планировщика
+    @Value("${search.outbox.max-batches-per-poll:20}")
+    private int maxBatchesPerPoll;
+
+    // task-service отдает события с задержкой (task.outbox.settle-delay) - учитываем ее
+    @Value("${search.outbox.settle-delay:PT2S}")
+    private Duration settleDelay;
+
+    @Scheduled(fixedDelayString = "${search.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        Instant pollStart = Instant.now();
+        try {
+            long offset = taskDataSyncService.getOutboxOffset(CONSUMER);
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                OutboxBatch batch = taskServiceClient.getOutboxEvents(offset, batchSize);
+                if (batch.getOldestId() != null && batch.getOldestId() > offset + 1) {
+                    resyncAfterGap(offset, batch.getOldestId());
+                }
+                if (batch.getEvents().isEmpty()) {
+                    syncFreshnessService.markOutboxCaughtUp(pollStart.minus(settleDelay));
+                    return;
+                }
+
+                int applied = taskDataSyncService.applyOutboxBatch(CONSUMER, batch);
+                log.debug("Applied {} of {} outbox events up to id {}", applied, batch.getEvents().size(), batch.getLastId());
+                offset = batch.getLastId();
+
+                if (batch.getEvents().size() < batchSize) {
+                    syncFreshnessService.markOutboxCaughtUp(pollStart.minus(settleDelay));
+                    return;
+                }
+            }
+            log.info("Outbox consumer is behind, continuing from id {} on next poll", offset);
+        } catch (Exception e) {
+            log.warn("Outbox poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void resyncAfterGap(long offset, long oldestId) {
+        log.warn("Outbox events after id {} were purged before they were applied (oldest retained id {}), "
+                + "forcing full resync of all users", offset, oldestId);
+        int reset = taskDataSyncService.resetWatermarks();
+        syncFreshnessService.invalidateAll();
+        log.info("Reset sync state of {} users", reset);
+    }
+}
@@ -0,0 +1,178 @@
+package org.example.search.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.search.dto.SyncResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Политика свежести данных поиска: чтение не ждет task-service, пока данные пользователя
+ * не старше {@code search.sync.max-staleness}. Устаревшие данные обновляются в фоне,
+ * а параллельные запросы одного пользователя разделяют одну синхронизацию.
+ * Пока потребитель outbox успевает за task-service, данные уже синхронизированных
+ * пользователей считаются свежими без отдельной синхронизации.
+ */
+@Service
+@Slf4j
+public class SyncFreshnessService {
+
+    @Autowired
+    private TaskDataSyncService taskDataSyncService;
+
+    @Autowired
+    @Qualifier("syncExecutor")
+    private Executor syncExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${search.sync.max-staleness:PT30S}")
+    private Duration maxStaleness;
+
+    // Пауза перед повторной попыткой после неудачной синхронизации
+    @Value("${search.sync.retry-backoff:PT5S}")
+    private Duration retryBackoff;
+
+    // Ждать ли первую синхронизацию пользователя, о котором еще нет данных
+    @Value("${search.sync.wait-for-first-sync:true}")
+    private boolean waitForFirstSync;
+
+    @Value("${search.sync.first-sync-timeout:PT5S}")
+    private Duration firstSyncTimeout;
+
+    private final Map<Long, Instant> lastAccessed = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> lastSynced = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> lastFailed = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<SyncResult>> inFlight = new ConcurrentHashMap<>();
+
+    // До какого момента применены все события outbox
+    private volatile Instant outboxCaughtUpAt;
+
+    /**
+     * Вызывается перед чтением: запускает фоновое обновление, если данные устарели.
+     * Блокирует запрос только при первом обращении к пользователю.
+     */
+    public void ensureFresh(Long userId) {
+        Instant now = Instant.now();
+        lastAccessed.put(userId, now);
+        Instant synced = lastSynced.get(userId);
+
+        if (synced != null && freshAsOf(synced).plus(maxStaleness).isAfter(now)) {
+            return;
+        }
+        Instant failed = lastFailed.get(userId);
+        if (failed != null && failed.plus(retryBackoff).isAfter(now)) {
+            return;
+        }
+
+        CompletableFuture<SyncResult> sync = refresh(userId);
+        if (synced == null && waitForFirstSync) {
+            // Единственный случай, когда чтение ждет синхронизацию
+            Timer.builder("search.sync.first-wait")
+                    .description("Time a read waits for the user's first sync")
+                    .register(meterRegistry)
+                    .record(() -> awaitFirstSync(userId, sync));
+        }
+    }
+
+    /**
+     * Запускает синхронизацию пользователя или возвращает уже выполняющуюся.
+     */
+    public CompletableFuture<SyncResult> refresh(Long userId) {
+        CompletableFuture<SyncResult> created = new CompletableFuture<>();
+        CompletableFuture<SyncResult> existing = inFlight.putIfAbsent(userId, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            syncExecutor.execute(() -> runSync(userId, created));
+        } catch (RejectedExecutionException e) {
+            log.warn("Sync queue is full, skipping refresh for user: {}", userId);
+            inFlight.remove(userId, created);
+            created.complete(SyncResult.failure());
+        }
+        return created;
+    }
+
+    /**
+     * Отмечает, что все события outbox до {@code caughtUpAt} применены.
+     */
+    public void markOutboxCaughtUp(Instant caughtUpAt) {
+        outboxCaughtUpAt = caughtUpAt;
+    }
+
+    /**
+     * Забывает все синхронизации этого экземпляра: после пропуска событий outbox данные
+     * любого пользователя могут быть неполными, и следующее чтение снова синхронизирует его.
+     */
+    public void invalidateAll() {
+        outboxCaughtUpAt = null;
+        lastSynced.clear();
+    }
+
+    private Instant freshAsOf(Instant synced) {
+        Instant caughtUp = outboxCaughtUpAt;
+        return caughtUp != null && caughtUp.isAfter(synced) ? caughtUp : synced;
+    }
+
+    /**
+     * Пользователи, чьи данные читались за последний {@code window}.
+     * Давно не читавшие пользователи забываются.
+     */
+    public List<Long> activeUsers(Duration window) {
+        Instant cutoff = Instant.now().minus(window);
+        lastAccessed.values().removeIf(accessed -> accessed.isBefore(cutoff));
+        return List.copyOf(lastAccessed.keySet());
+    }
+
+    /**
+     * Момент последней успешной синхронизации пользователя в этом экземпляре или {@code null}.
+     */
+    public Instant lastSyncedAt(Long userId) {
+        return lastSynced.get(userId);
+    }
+
+    private void runSync(Long userId, CompletableFuture<SyncResult> future) {
+        SyncResult result = SyncResult.failure();
+        try {
+            result = taskDataSyncService.syncUserTasks(userId);
+        } finally {
+            if (result.failed()) {
+                lastFailed.put(userId, Instant.now());
+            } else {
+                lastSynced.put(userId, Instant.now());
+                lastFailed.remove(userId);
+            }
+            inFlight.remove(userId, future);
+            future.complete(result);
+        }
+    }
+
+    private void awaitFirstSync(Long userId, CompletableFuture<SyncResult> sync) {
+        try {
+            sync.get(firstSyncTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("First sync for user {} did not finish in {}, serving local data", userId, firstSyncTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("First sync for user {} failed: {}", userId, e.getMessage());
+        }
+    }
+}
@@ -1,15 +1,38 @@
 package org.example.search.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.example.search.client.NotModifiedException;
 import org.example.search.client.TaskServiceClient;
+import org.example.search.dto.OutboxBatch;
+import org.example.search.dto.OutboxEvent;
+import org.example.search.dto.SyncResult;
+import org.example.search.dto.TaskChanges;
+import org.example.search.event.TaskDataChangedEvent;
+import org.example.search.model.ReplicationOffset;
+import org.example.search.model.SyncState;
 import org.example.search.model.Task;
+import org.example.search.repository.ReplicationOffsetRepository;
+import org.example.search.repository.SyncStateRepository;
 import org.example.search.repository.TaskSearchRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -21,41 +44,236 @@ public class TaskDataSyncService {
     @Autowired
     private TaskSearchRepository taskSearchRepository;
 
+    @Autowired
+    private SyncStateRepository syncStateRepository;
+
+    @Autowired
+    private ReplicationOffsetRepository replicationOffsetRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${search.sync.incremental-enabled:true}")
+    private boolean incrementalEnabled;
+
+    // Перекрытие окна запроса изменений: защищает от пропуска транзакций,
+    // закоммиченных в task-service позже, чем была записана их отметка updatedAt
+    @Value("${search.sync.watermark-overlap:PT5S}")
+    private Duration watermarkOverlap;
+
+    // Наибольший разрыв, после которого еще возможна инкрементальная синхронизация.
+    // Должен быть меньше task.tombstones.retention в task-service: более старые удаления
+    // уже стерты, и узнать о них можно только полной сверкой
+    @Value("${search.sync.max-incremental-gap:P7D}")
+    private Duration maxIncrementalGap;
+
     /**
-     * Синхронизирует задачи для конкретного пользователя
+     * Синхронизирует задачи для конкретного пользователя.
+     * При наличии водяного знака не старше {@code search.sync.max-incremental-gap} загружает только изменения после него,
+     * иначе выполняет полную сверку.
      */
     @Transactional
-    public void syncUserTasks(Long userId) {
+    public SyncResult syncUserTasks(Long userId) {
         try {
             log.info("Starting sync for user: {}", userId);
 
-            // Получаем задачи из task-service
-            List<Task> tasksFromTaskService = taskServiceClient.getTasksByUser(userId);
+            SyncState state = syncStateRepository.findById(userId).orElseGet(() -> {
+                SyncState newState = new SyncState();
+                newState.setUserId(userId);
+                return newState;
+            });
 
-            // Удаляем старые задачи пользователя
-            List<Task> existingTasks = taskSearchRepository.findByUserId(userId);
-            taskSearchRepository.deleteAll(existingTasks);
+            boolean incremental = incrementalEnabled && state.getWatermark() != null
+                    && state.getWatermark().isAfter(LocalDateTime.now().minus(maxIncrementalGap));
+            SyncResult result = incremental
+                    ? incrementalSync(userId, state)
+                    : fullSync(userId, state);
 
-            // Сохраняем новые задачи
-            if (!tasksFromTaskService.isEmpty()) {
-                taskSearchRepository.saveAll(tasksFromTaskService);
-                log.info("Synced {} tasks for user: {}", tasksFromTaskService.size(), userId);
-            } else {
-                log.info("No tasks found for user: {}", userId);
-            }
+            state.setLastSyncedAt(LocalDateTime.now());
+            syncStateRepository.save(state);
 
+            log.info("Synced user {}: full={}, upserted={}, deleted={}",
+                    userId, result.full(), result.upserted(), result.deleted());
+            return result;
         } catch (Exception e) {
             log.error("Error syncing tasks for user {}: {}", userId, e.getMessage());
+            return SyncResult.failure();
+        }
+    }
+
+    private SyncResult incrementalSync(Long userId, SyncState state) {
+        LocalDateTime since = state.getWatermark().minus(watermarkOverlap);
+        TaskChanges changes = fetchChanges(userId, since, state);
+        if (changes == null) {
+            return new SyncResult(false, 0, 0, false);
+        }
+
+        List<Task> upserted = phaseTimer("upsert", false).record(() -> upsertChanged(changes.getTasks(), false));
+
+        List<Long> deletedIds = changes.getDeletedIds();
+        if (!deletedIds.isEmpty()) {
+            phaseTimer("delete", false).record(() -> taskSearchRepository.deleteAllByIdInBatch(deletedIds));
+        }
+        publishChanges(userId, upserted, deletedIds);
+
+        if (changes.getWatermark() != null && changes.getWatermark().isAfter(state.getWatermark())) {
+            state.setWatermark(changes.getWatermark());
+        }
+        return new SyncResult(false, upserted.size(), deletedIds.size(), false);
+    }
+
+    private SyncResult fullSync(Long userId, SyncState state) {
+        TaskChanges changes = fetchChanges(userId, null, state);
+        if (changes == null) {
+            return new SyncResult(true, 0, 0, false);
+        }
+        List<Task> tasksFromTaskService = changes.getTasks();
+
+        List<Long> staleIds = phaseTimer("delete", true).record(() -> deleteStale(userId, tasksFromTaskService));
+        List<Task> upserted = phaseTimer("upsert", true).record(() -> upsertChanged(tasksFromTaskService, false));
+        publishChanges(userId, upserted, staleIds);
+
+        state.setWatermark(changes.getWatermark());
+        return new SyncResult(true, upserted.size(), staleIds.size(), false);
+    }
+
+    /**
+     * Удаляет задачи пользователя, которых больше нет в task-service, и возвращает их id.
+     */
+    private List<Long> deleteStale(Long userId, List<Task> actualTasks) {
+        Set<Long> actualIds = actualTasks.stream()
+                .map(Task::getId)
+                .collect(Collectors.toCollection(HashSet::new));
+        List<Long> staleIds = taskSearchRepository.findIdsByUserId(userId).stream()
+                .filter(id -> !actualIds.contains(id))
+                .toList();
+        if (!staleIds.isEmpty()) {
+            taskSearchRepository.deleteAllByIdInBatch(staleIds);
+        }
+        return staleIds;
+    }
+
+    // Этапы синхронизации: fetch (запрос к task-service), delete и upsert в search_bd
+    private Timer phaseTimer(String phase, boolean full) {
+        return Timer.builder("search.sync.phase")
+                .description("Duration of a single user sync phase")
+                .tag("phase", phase)
+                .tag("mode", full ? "full" : "incremental")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Запрашивает изменения с ETag прошлого ответа. Возвращает {@code null}, если у пользователя
+     * ничего не изменилось (304) - тогда ни список, ни его разбор не нужны.
+     */
+    private TaskChanges fetchChanges(Long userId, LocalDateTime since, SyncState state) {
+        try {
+            ResponseEntity<TaskChanges> response = phaseTimer("fetch", since == null)
+                    .record(() -> taskServiceClient.getTaskChanges(userId, since, state.getEtag()));
+            state.setEtag(response.getHeaders().getETag());
+            return response.getBody();
+        } catch (NotModifiedException e) {
+            log.debug("Tasks of user {} not modified since last sync", userId);
+            return null;
         }
     }
 
     /**
-     * Периодическая синхронизация (каждые 5 минут)
+     * Позиция потребителя outbox или 0, если он еще ничего не читал.
+     * Читается с основной БД: с отстающей реплики потребитель повторно забирал бы уже примененные пачки.
      */
-    @Scheduled(fixedRate = 300000) // 5 минут
-    public void scheduledSync() {
-        log.info("Starting scheduled sync...");
-        // Здесь можно добавить логику для синхронизации всех пользователей
-        // или только активных пользователей
+    @Transactional
+    public long getOutboxOffset(String consumer) {
+        return replicationOffsetRepository.findById(consumer)
+                .map(ReplicationOffset::getLastEventId)
+                .orElse(0L);
+    }
+
+    /**
+     * Сбрасывает водяные знаки и ETag всех пользователей, чтобы следующая синхронизация
+     * каждого из них была полной.
+     */
+    @Transactional
+    public int resetWatermarks() {
+        return syncStateRepository.clearWatermarks();
+    }
+
+    /**
+     * Применяет пачку событий outbox и сдвигает позицию потребителя в одной транзакции.
+     * Повторное применение безопасно: задача сохраняется, только если она новее локальной.
+     */
+    @Transactional
+    public int applyOutboxBatch(String consumer, OutboxBatch batch) {
+        Map<Long, List<Task>> upsertsByUser = new LinkedHashMap<>();
+        Map<Long, List<Long>> deletesByUser = new LinkedHashMap<>();
+        for (OutboxEvent event : batch.getEvents()) {
+            if (event.getTask() != null) {
+                upsertsByUser.computeIfAbsent(event.getUserId(), id -> new ArrayList<>()).add(event.getTask());
+            } else {
+                deletesByUser.computeIfAbsent(event.getUserId(), id -> new ArrayList<>()).add(event.getTaskId());
+            }
+        }
+
+        int applied = 0;
+        Set<Long> userIds = new HashSet<>(upsertsByUser.keySet());
+        userIds.addAll(deletesByUser.keySet());
+        for (Long userId : userIds) {
+            // Одна задача может встретиться в пачке несколько раз - достаточно последнего состояния
+            List<Task> upserted = upsertChanged(upsertsByUser.getOrDefault(userId, List.of()).stream()
+                    .collect(Collectors.toMap(Task::getId, task -> task, (first, last) -> last, LinkedHashMap::new))
+                    .values().stream().toList(), true);
+            List<Long> deletedIds = deletesByUser.getOrDefault(userId, List.of()).stream().distinct().toList();
+            if (!deletedIds.isEmpty()) {
+                taskSearchRepository.deleteAllByIdInBatch(deletedIds);
+            }
+            publishChanges(userId, upserted, deletedIds);
+            applied += upserted.size() + deletedIds.size();
+        }
+
+        ReplicationOffset offset = replicationOffsetRepository.findById(consumer).orElseGet(() -> {
+            ReplicationOffset newOffset = new ReplicationOffset();
+            newOffset.setName(consumer);
+            return newOffset;
+        });
+        offset.setLastEventId(batch.getLastId());
+        replicationOffsetRepository.save(offset);
+        return applied;
+    }
+
+    /**
+     * Сохраняет только новые задачи и задачи, у которых изменился updatedAt
+     * (при {@code onlyNewer} - только если пришедшая версия новее локальной).
+     */
+    private List<Task> upsertChanged(List<Task> tasks, boolean onlyNewer) {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, LocalDateTime> localVersions = taskSearchRepository
+                .findVersionsByIds(tasks.stream().map(Task::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (LocalDateTime) row[1]));
+
+        List<Task> changed = tasks.stream()
+                .filter(task -> {
+                    LocalDateTime local = localVersions.get(task.getId());
+                    if (local == null) {
+                        return true;
+                    }
+                    return onlyNewer
+                            ? task.getUpdatedAt() != null && task.getUpdatedAt().isAfter(local)
+                            : !Objects.equals(local, task.getUpdatedAt());
+                })
+                .toList();
+        taskSearchRepository.upsertAll(changed);
+        return changed;
+    }
+
+    private void publishChanges(Long userId, List<Task> upserted, List<Long> deletedIds) {
+        if (!upserted.isEmpty() || !deletedIds.isEmpty()) {
+            eventPublisher.publishEvent(new TaskDataChangedEvent(userId, upserted, deletedIds));
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,95 +1,387 @@
 package org.example.search.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.search.cache.SearchResultCache;
+import org.example.search.config.SearchSchemaInitializer;
+import org.example.search.dto.BadSearchRequestException;
+import org.example.search.dto.CursorPage;
+import org.example.search.dto.FacetCounts;
+import org.example.search.dto.PageCursor;
 import org.example.search.dto.SearchCriteria;
+import org.example.search.dto.SearchMode;
+import org.example.search.dto.TaskSummary;
+import org.example.search.index.KeyboardLayout;
+import org.example.search.index.KeywordIndex;
+import org.example.search.index.TextTokenizer;
+import org.example.search.index.TitleSuggestIndex;
+import org.example.search.index.TrigramSimilarity;
+import org.example.search.model.Priority;
 import org.example.search.model.Task;
+import org.example.search.model.TaskStatus;
 import org.example.search.repository.TaskSearchRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
-@Transactional
+@Transactional(readOnly = true)
 public class TaskSearchService {
 
+    // Поля сортировки поиска; "relevance" имеет смысл только для FULL_TEXT и FUZZY
+    private static final Set<String> SORT_FIELDS = Set.of(
+            "id", "title", "status", "priority", "deadline", "createdAt", "updatedAt", "relevance");
+
     @Autowired
     private TaskSearchRepository taskSearchRepository;
 
     @Autowired
     private CircuitBreakerFactory circuitBreakerFactory;
 
+    @Autowired
+    private KeywordIndex keywordIndex;
+
+    @Autowired
+    private TitleSuggestIndex titleSuggestIndex;
+
+    @Autowired
+    private SearchSchemaInitializer searchSchemaInitializer;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Value("${search.stream.fetch-size:500}")
+    private int streamFetchSize;
+
+    // Больше совпадений в индексе - фильтруем через LIKE, а не длинным IN (...):
+    // при таком числе кандидатов индекс почти не сужает выборку
+    @Value("${search.keyword-index.max-in-list:1000}")
+    private int maxIndexMatches;
+
+    @Value("${search.page.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${search.suggest.max-results:20}")
+    private int maxSuggestions;
+
+    // Порог strict_word_similarity для FUZZY, если он не задан в запросе
+    @Value("${search.fuzzy.threshold:0.3}")
+    private double fuzzyThreshold;
+
+    // Запрос выполняется в потоке circuit breaker: транзакция здесь держала бы второе соединение
+    // на время ожидания, и при занятом пуле запросы ждали бы друг друга до таймаута
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Page<Task> searchTasks(SearchCriteria criteria) {
+        validateSort(criteria);
+        validatePage(criteria.getPage(), criteria.getSize());
         CircuitBreaker circuitBreaker = circuitBreakerFactory.create("searchService");
 
         return circuitBreaker.run(() -> {
             log.info("Searching tasks with criteria: userId={}, keyword={}, status={}, priority={}",
                     criteria.getUserId(), criteria.getKeyword(), criteria.getStatus(), criteria.getPriority());
 
-            Specification<Task> spec = buildSpecification(criteria);
-            Pageable pageable = buildPageable(criteria);
+            return searchResultCache.get(criteria.getUserId(), "searchTasks", normalize(criteria), () -> {
+                if (useFullText(criteria)) {
+                    return taskSearchRepository.fullTextSearch(criteria,
+                            PageRequest.of(criteria.getPage(), criteria.getSize()));
+                }
+                if (useFuzzy(criteria)) {
+                    return fuzzySearch(criteria, PageRequest.of(criteria.getPage(), criteria.getSize()));
+                }
 
-            return taskSearchRepository.findAll(spec, pageable);
+                Specification<Task> spec = buildSpecification(criteria);
+                Pageable pageable = buildPageable(criteria);
+
+                return taskSearchRepository.findAll(spec, pageable);
+            });
         }, throwable -> {
             log.error("Fallback for search: {}", throwable.getMessage());
             return Page.empty();
         });
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Task> searchTasksWithoutPagination(SearchCriteria criteria) {
+        validateSort(criteria);
         CircuitBreaker circuitBreaker = circuitBreakerFactory.create("searchService");
 
         return circuitBreaker.run(() -> {
             log.info("Searching tasks without pagination: userId={}", criteria.getUserId());
 
-            Specification<Task> spec = buildSpecification(criteria);
-            Sort sort = buildSort(criteria);
+            return searchResultCache.get(criteria.getUserId(), "searchTasksWithoutPagination", normalize(criteria), () -> {
+                if (useFullText(criteria)) {
+                    return taskSearchRepository.fullTextSearch(criteria, Pageable.unpaged()).getContent();
+                }
+                if (useFuzzy(criteria)) {
+                    return fuzzySearch(criteria, Pageable.unpaged()).getContent();
+                }
+
+                Specification<Task> spec = buildSpecification(criteria);
+                Sort sort = buildSort(criteria);
 
-            return taskSearchRepository.findAll(spec, sort);
+                return taskSearchRepository.findAll(spec, sort);
+            });
         }, throwable -> {
             log.error("Fallback for search without pagination: {}", throwable.getMessage());
             return List.of();
         });
     }
 
+    /**
+     * То же, что {@link #searchTasks}, но выбирает только колонки {@link TaskSummary}.
+     * В режимах FULL_TEXT и FUZZY задачи читаются целиком и сокращаются после выборки.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Page<TaskSummary> searchTaskSummaries(SearchCriteria criteria) {
+        validateSort(criteria);
+        validatePage(criteria.getPage(), criteria.getSize());
+        CircuitBreaker circuitBreaker = circuitBreakerFactory.create("searchService");
+
+        return circuitBreaker.run(() -> {
+            log.info("Searching task summaries: userId={}, keyword={}, status={}, priority={}",
+                    criteria.getUserId(), criteria.getKeyword(), criteria.getStatus(), criteria.getPriority());
+
+            return searchResultCache.get(criteria.getUserId(), "searchTaskSummaries", normalize(criteria), () -> {
+                if (useFullText(criteria)) {
+                    return taskSearchRepository.fullTextSearch(criteria,
+                            PageRequest.of(criteria.getPage(), criteria.getSize())).map(TaskSummary::from);
+                }
+                if (useFuzzy(criteria)) {
+                    return fuzzySearch(criteria, PageRequest.of(criteria.getPage(), criteria.getSize()))
+                            .map(TaskSummary::from);
+                }
+                return taskSearchRepository.findSummaries(buildSpecification(criteria), buildPageable(criteria));
+            });
+        }, throwable -> {
+            log.error("Fallback for summary search: {}", throwable.getMessage());
+            return Page.empty();
+        });
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TaskSummary> searchTaskSummariesWithoutPagination(SearchCriteria criteria) {
+        validateSort(criteria);
+        CircuitBreaker circuitBreaker = circuitBreakerFactory.create("searchService");
+
+        return circuitBreaker.run(() -> {
+            log.info("Searching task summaries without pagination: userId={}", criteria.getUserId());
+
+            return searchResultCache.get(criteria.getUserId(), "searchTaskSummariesWithoutPagination", normalize(criteria), () -> {
+                if (useFullText(criteria)) {
+                    return taskSearchRepository.fullTextSearch(criteria, Pageable.unpaged()).getContent().stream()
+                            .map(TaskSummary::from)
+                            .toList();
+                }
+                if (useFuzzy(criteria)) {
+                    return fuzzySearch(criteria, Pageable.unpaged()).getContent().stream()
+                            .map(TaskSummary::from)
+                            .toList();
+                }
+                return taskSearchRepository.findSummaries(buildSpecification(criteria),
+                        Pageable.unpaged(buildSort(criteria))).getContent();
+            });
+        }, throwable -> {
+            log.error("Fallback for summary search without pagination: {}", throwable.getMessage());
+            return List.of();
+        });
+    }
+
+    /**
+     * Поиск с keyset-пагинацией: следующая страница выбирается условием
+     * {@code (sortBy, id) > (значение, id последней строки)}, поэтому любая страница
+     * стоит как первая. Подсчет общего числа выполняется только при {@code withTotal}.
+     * Режимы FULL_TEXT и FUZZY здесь не поддерживаются - используется поиск по ключевому слову.
+     */
+    public CursorPage<Task> searchTasksByCursor(SearchCriteria criteria) {
+        log.info("Cursor search: userId={}, sortBy={}, cursor={}",
+                criteria.getUserId(), criteria.getSortBy(), criteria.getCursor());
+
+        validateSort(criteria);
+        validatePage(0, criteria.getSize());
+        if (!PageCursor.SORT_FIELDS.contains(criteria.getSortBy())) {
+            throw new BadSearchRequestException("Cursor pagination is not supported for sort field: " + criteria.getSortBy());
+        }
+        return searchResultCache.get(criteria.getUserId(), "searchTasksByCursor", normalize(criteria),
+                () -> loadCursorPage(criteria));
+    }
+
+    private CursorPage<Task> loadCursorPage(SearchCriteria criteria) {
+        Sort.Direction direction = Sort.Direction.fromString(criteria.getSortDirection());
+        Sort sort = Sort.by(direction, criteria.getSortBy()).and(Sort.by(direction, "id"));
+
+        Specification<Task> filter = buildSpecification(criteria);
+        Specification<Task> spec = filter;
+        if (criteria.getCursor() != null && !criteria.getCursor().isEmpty()) {
+            PageCursor cursor = PageCursor.decode(criteria.getCursor());
+            if (!cursor.sortBy().equals(criteria.getSortBy())
+                    || !cursor.sortDirection().equalsIgnoreCase(direction.name())) {
+                throw new BadSearchRequestException("Cursor does not match requested sort order");
+            }
+            spec = filter.and(seekAfter(cursor, direction));
+        }
+
+        int size = criteria.getSize();
+        List<Task> rows = taskSearchRepository.findBy(spec, query -> query.sortBy(sort).limit(size + 1).all());
+
+        boolean hasNext = rows.size() > size;
+        List<Task> content = hasNext ? List.copyOf(rows.subList(0, size)) : rows;
+        String nextCursor = hasNext ? cursorAfter(content.get(content.size() - 1), criteria.getSortBy(), direction) : null;
+        Long total = criteria.isWithTotal() ? taskSearchRepository.count(filter) : null;
+
+        return new CursorPage<>(content, nextCursor, hasNext, total);
+    }
+
+    public CursorPage<Task> findByUserIdWithCursor(Long userId, String cursor, Integer size, boolean withTotal) {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setUserId(userId);
+        criteria.setCursor(cursor);
+        criteria.setSize(size);
+        criteria.setWithTotal(withTotal);
+        return searchTasksByCursor(criteria);
+    }
+
+    /**
+     * Счетчики задач по статусу, приоритету и дедлайну для тех же фильтров, что и поиск.
+     * Время округляется до минуты, чтобы результат можно было кэшировать.
+     */
+    public FacetCounts countFacets(SearchCriteria criteria) {
+        log.info("Counting facets: userId={}", criteria.getUserId());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        SearchCriteria filters = normalize(criteria);
+        filters.setPage(null);
+        filters.setSize(null);
+        filters.setSortBy(null);
+        filters.setSortDirection(null);
+        filters.setCursor(null);
+        filters.setWithTotal(false);
+
+        return searchResultCache.get(criteria.getUserId(), "countFacets", List.of(filters, now),
+                () -> taskSearchRepository.countFacets(buildSpecification(criteria), now));
+    }
+
+    /**
+     * Передает найденные задачи по одной, читая их из БД порциями по fetch size,
+     * без материализации всего результата.
+     */
+    @Transactional(readOnly = true)
+    public void streamTasks(SearchCriteria criteria, Consumer<Task> consumer) {
+        log.info("Streaming tasks: userId={}", criteria.getUserId());
+
+        Specification<Task> spec = buildSpecification(criteria);
+        Sort sort = buildSort(criteria).and(Sort.by("id"));
+
+        try (Stream<Task> tasks = taskSearchRepository.streamAll(spec, sort, streamFetchSize)) {
+            tasks.forEach(consumer);
+        }
+    }
+
     public List<Task> findByUserId(Long userId) {
         log.info("Finding all tasks for user: {}", userId);
-        return taskSearchRepository.findByUserId(userId);
+        return searchResultCache.get(userId, "findByUserId", userId,
+                () -> taskSearchRepository.findByUserId(userId));
     }
 
     public Page<Task> findByUserIdWithPagination(Long userId, Integer page, Integer size) {
         log.info("Finding tasks for user: {} with pagination: page={}, size={}", userId, page, size);
+        validatePage(page, size);
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        return taskSearchRepository.findByUserId(userId, pageable);
+        return searchResultCache.get(userId, "findByUserIdWithPagination", pageable,
+                () -> taskSearchRepository.findByUserId(userId, pageable));
     }
 
     public List<Task> findByKeyword(Long userId, String keyword) {
         log.info("Searching tasks for user: {} with keyword: {}", userId, keyword);
-        return taskSearchRepository.findByUserIdAndKeyword(userId, keyword);
+        return searchResultCache.get(userId, "findByKeyword", normalizeKeyword(keyword),
+                () -> loadByKeyword(userId, keyword));
+    }
+
+    private List<Task> loadByKeyword(Long userId, String keyword) {
+        List<Long> matchedIds = findIdsInKeywordIndex(userId, keyword);
+        if (matchedIds == null) {
+            return taskSearchRepository.findByUserIdAndKeyword(userId, keyword);
+        }
+        if (matchedIds.isEmpty()) {
+            return List.of();
+        }
+        return taskSearchRepository.findByUserIdAndKeywordAndIdIn(userId, keyword, matchedIds);
+    }
+
+    /**
+     * Подсказки названий по началу названия или любого его слова. Без индекса
+     * (search.suggest.enabled=false) ищет только по началу названия через LIKE.
+     */
+    public List<String> suggestTitles(Long userId, String prefix, int limit) {
+        int size = Math.max(1, Math.min(limit, maxSuggestions));
+        if (titleSuggestIndex.isEnabled()) {
+            return titleSuggestIndex.suggest(userId, prefix, size);
+        }
+        String escaped = prefix.trim().toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return taskSearchRepository.findTitlesByPrefix(userId, escaped, PageRequest.of(0, size));
     }
 
     public List<Task> findByStatus(Long userId, String status) {
         log.info("Searching tasks for user: {} with status: {}", userId, status);
-        return taskSearchRepository.findByUserIdAndStatus(userId,
-                org.example.search.model.TaskStatus.valueOf(status.toUpperCase()));
+        TaskStatus taskStatus = parseStatus(status);
+        return searchResultCache.get(userId, "findByStatus", taskStatus,
+                () -> taskSearchRepository.findByUserIdAndStatus(userId, taskStatus));
     }
 
     public List<Task> findByPriority(Long userId, String priority) {
         log.info("Searching tasks for user: {} with priority: {}", userId, priority);
-        return taskSearchRepository.findByUserIdAndPriority(userId,
-                org.example.search.model.Priority.valueOf(priority.toUpperCase()));
+        Priority taskPriority = parsePriority(priority);
+        return searchResultCache.get(userId, "findByPriority", taskPriority,
+                () -> taskSearchRepository.findByUserIdAndPriority(userId, taskPriority));
+    }
+
+    public List<TaskSummary> findSummariesByUserId(Long userId) {
+        return searchTaskSummariesWithoutPagination(userCriteria(userId));
+    }
+
+    public Page<TaskSummary> findSummariesByUserIdWithPagination(Long userId, Integer page, Integer size) {
+        SearchCriteria criteria = userCriteria(userId);
+        criteria.setPage(page);
+        criteria.setSize(size);
+        return searchTaskSummaries(criteria);
+    }
+
+    public List<TaskSummary> findSummariesByStatus(Long userId, String status) {
+        SearchCriteria criteria = userCriteria(userId);
+        criteria.setStatus(parseStatus(status));
+        return searchTaskSummariesWithoutPagination(criteria);
+    }
+
+    public List<TaskSummary> findSummariesByPriority(Long userId, String priority) {
+        SearchCriteria criteria = userCriteria(userId);
+        criteria.setPriority(parsePriority(priority));
+        return searchTaskSummariesWithoutPagination(criteria);
     }
 
     public Optional<Task> findByIdAndUserId(Long id, Long userId) {
@@ -98,15 +390,179 @@ public class TaskSearchService {
                 .filter(task -> task.getUserId().equals(userId));
     }
 
+    // Все задачи пользователя, новые сначала
+    private SearchCriteria userCriteria(Long userId) {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setUserId(userId);
+        return criteria;
+    }
+
+    /**
+     * Проверяет поле и направление сортировки до запроса. Внутри circuit breaker ошибка
+     * превратилась бы в пустой ответ fallback вместо 400.
+     */
+    private void validateSort(SearchCriteria criteria) {
+        if (!SORT_FIELDS.contains(criteria.getSortBy())) {
+            throw new BadSearchRequestException("Unsupported sort field: " + criteria.getSortBy());
+        }
+        if (!"ASC".equalsIgnoreCase(criteria.getSortDirection()) && !"DESC".equalsIgnoreCase(criteria.getSortDirection())) {
+            throw new BadSearchRequestException("Unsupported sort direction: " + criteria.getSortDirection());
+        }
+    }
+
+    private void validatePage(Integer page, Integer size) {
+        if (page == null || page < 0 || size == null || size < 1 || size > maxPageSize) {
+            throw new BadSearchRequestException("Page must be non-negative and size between 1 and " + maxPageSize);
+        }
+    }
+
+    private static TaskStatus parseStatus(String status) {
+        try {
+            return TaskStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadSearchRequestException("Unknown status: " + status, e);
+        }
+    }
+
+    private static Priority parsePriority(String priority) {
+        try {
+            return Priority.valueOf(priority.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadSearchRequestException("Unknown priority: " + priority, e);
+        }
+    }
+
+    /**
+     * Копия критериев в каноническом виде для ключа кэша: одинаковые по смыслу
+     * запросы (регистр и пробелы в ключевом слове, регистр направления сортировки) совпадают.
+     */
+    private SearchCriteria normalize(SearchCriteria criteria) {
+        SearchCriteria normalized = new SearchCriteria();
+        normalized.setUserId(criteria.getUserId());
+        normalized.setKeyword(normalizeKeyword(criteria.getKeyword()));
+        normalized.setSearchMode(criteria.getSearchMode());
+        normalized.setSimilarityThreshold(criteria.getSimilarityThreshold());
+        normalized.setStatus(criteria.getStatus());
+        normalized.setPriority(criteria.getPriority());
+        normalized.setDeadlineFrom(criteria.getDeadlineFrom());
+        normalized.setDeadlineTo(criteria.getDeadlineTo());
+        normalized.setCreatedFrom(criteria.getCreatedFrom());
+        normalized.setCreatedTo(criteria.getCreatedTo());
+        normalized.setSortBy(criteria.getSortBy());
+        normalized.setSortDirection(criteria.getSortDirection() == null ? null : criteria.getSortDirection().toUpperCase());
+        normalized.setPage(criteria.getPage());
+        normalized.setSize(criteria.getSize());
+        normalized.setCursor(criteria.getCursor());
+        normalized.setWithTotal(criteria.isWithTotal());
+        return normalized;
+    }
+
+    private String normalizeKeyword(String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return null;
+        }
+        return keyword.trim().toLowerCase();
+    }
+
+    private boolean useFullText(SearchCriteria criteria) {
+        if (criteria.getSearchMode() != SearchMode.FULL_TEXT
+                || criteria.getKeyword() == null || criteria.getKeyword().trim().isEmpty()) {
+            return false;
+        }
+        if (!searchSchemaInitializer.isFullTextReady()) {
+            log.warn("Full-text search is not available, falling back to keyword search");
+            return false;
+        }
+        return true;
+    }
+
+    private boolean useFuzzy(SearchCriteria criteria) {
+        return criteria.getSearchMode() == SearchMode.FUZZY
+                && criteria.getKeyword() != null && !criteria.getKeyword().trim().isEmpty();
+    }
+
+    /**
+     * Нечеткий поиск через pg_trgm, а без него (не PostgreSQL, нет расширения) - триграммное
+     * сходство на Java по задачам пользователя, прошедшим остальные фильтры.
+     */
+    private Page<Task> fuzzySearch(SearchCriteria criteria, Pageable pageable) {
+        double threshold = criteria.getSimilarityThreshold() != null
+                ? criteria.getSimilarityThreshold()
+                : fuzzyThreshold;
+        if (searchSchemaInitializer.isTrigramReady()) {
+            return taskSearchRepository.fuzzySearch(criteria, threshold, pageable);
+        }
+
+        SearchCriteria filters = normalize(criteria);
+        filters.setKeyword(null);
+        String keyword = criteria.getKeyword();
+        String swapped = KeyboardLayout.swap(keyword);
+
+        Map<Long, Double> scores = new HashMap<>();
+        List<Task> matches = new ArrayList<>();
+        for (Task task : taskSearchRepository.findAll(buildSpecification(filters), buildSort(criteria))) {
+            double score = similarity(keyword, task);
+            if (swapped != null) {
+                score = Math.max(score, similarity(swapped, task));
+            }
+            if (score >= threshold) {
+                scores.put(task.getId(), score);
+                matches.add(task);
+            }
+        }
+        if ("relevance".equals(criteria.getSortBy())) {
+            matches.sort(Comparator.<Task>comparingDouble(task -> scores.get(task.getId())).reversed()
+                    .thenComparing(Task::getId, Comparator.reverseOrder()));
+        }
+
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matches);
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
+    }
+
+    private static double similarity(String keyword, Task task) {
+        return Math.max(TrigramSimilarity.wordSimilarity(keyword, task.getTitle()),
+                TrigramSimilarity.wordSimilarity(keyword, task.getDescription()));
+    }
+
+    /**
+     * Возвращает id задач-кандидатов из инвертированного индекса или {@code null},
+     * если индекс выключен, в запросе нет слов либо кандидатов слишком много для фильтра по id.
+     * Кандидаты - надмножество совпадений LIKE, поэтому LIKE применяется и к ним.
+     */
+    private List<Long> findIdsInKeywordIndex(Long userId, String keyword) {
+        if (!keywordIndex.isEnabled() || TextTokenizer.tokenize(keyword).isEmpty()) {
+            return null;
+        }
+        long[] ids = keywordIndex.search(userId, keyword);
+        if (ids.length > maxIndexMatches) {
+            return null;
+        }
+        return Arrays.stream(ids).boxed().toList();
+    }
+
     private Specification<Task> buildSpecification(SearchCriteria criteria) {
+        boolean hasKeyword = criteria.getKeyword() != null && !criteria.getKeyword().trim().isEmpty();
+        List<Long> keywordMatches = hasKeyword
+                ? findIdsInKeywordIndex(criteria.getUserId(), criteria.getKeyword())
+                : null;
+
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             // Фильтр по пользователю
             predicates.add(cb.equal(root.get("userId"), criteria.getUserId()));
 
-            // Фильтр по ключевому слову
-            if (criteria.getKeyword() != null && !criteria.getKeyword().trim().isEmpty()) {
+            // Фильтр по ключевому слову: индекс только сужает набор строк, которые проверит LIKE
+            if (keywordMatches != null) {
+                predicates.add(keywordMatches.isEmpty()
+                        ? cb.disjunction()
+                        : root.get("id").in(keywordMatches));
+            }
+            if (hasKeyword) {
                 String keywordPattern = "%" + criteria.getKeyword().toLowerCase() + "%";
                 Predicate titlePredicate = cb.like(cb.lower(root.get("title")), keywordPattern);
                 Predicate descriptionPredicate = cb.like(cb.lower(root.get("description")), keywordPattern);
@@ -143,6 +599,31 @@ public class TaskSearchService {
         };
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Specification<Task> seekAfter(PageCursor cursor, Sort.Direction direction) {
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            Predicate idAfter = direction.isAscending() ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id());
+            if ("id".equals(cursor.sortBy())) {
+                return idAfter;
+            }
+            Path<Comparable> field = root.get(cursor.sortBy());
+            Comparable value = (Comparable) cursor.value();
+            Predicate fieldAfter = direction.isAscending() ? cb.greaterThan(field, value) : cb.lessThan(field, value);
+            return cb.or(fieldAfter, cb.and(cb.equal(field, value), idAfter));
+        };
+    }
+
+    private String cursorAfter(Task last, String sortBy, Sort.Direction direction) {
+        Object value = switch (sortBy) {
+            case "createdAt" -> last.getCreatedAt();
+            case "updatedAt" -> last.getUpdatedAt();
+            case "title" -> last.getTitle();
+            default -> null;
+        };
+        return new PageCursor(sortBy, direction.name(), last.getId(), value).encode();
+    }
+
     private Pageable buildPageable(SearchCriteria criteria) {
         Sort sort = buildSort(criteria);
         return PageRequest.of(criteria.getPage(), criteria.getSize(), sort);
@@ -150,6 +631,10 @@ public class TaskSearchService {
 
     private Sort buildSort(SearchCriteria criteria) {
         Sort.Direction direction = Sort.Direction.fromString(criteria.getSortDirection());
+        // Релевантность есть только у полнотекстового поиска
+        if ("relevance".equals(criteria.getSortBy())) {
+            return Sort.by(Sort.Direction.DESC, "createdAt");
+        }
         return Sort.by(direction, criteria.getSortBy());
     }
 }
\ No newline at end of file
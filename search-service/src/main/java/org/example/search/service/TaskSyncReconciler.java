@@ -0,0 +1,108 @@
+package org.example.search.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.search.dto.SyncResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Фоновая сверка данных поиска с task-service для активных пользователей,
+ * чтобы запросы на чтение не платили за синхронизацию.
+ */
+@Service
+@Slf4j
+public class TaskSyncReconciler {
+
+    private final SyncFreshnessService syncFreshnessService;
+    private final MeterRegistry meterRegistry;
+    private final Timer reconcileTimer;
+
+    // Пользователь считается активным, если читал данные за это время
+    @Value("${search.sync.reconcile.active-window:PT1H}")
+    private Duration activeWindow;
+
+    // Сколько пользователей синхронизируется одновременно
+    @Value("${search.sync.reconcile.concurrency:4}")
+    private int concurrency;
+
+    // Не трогать пользователей, синхронизированных недавно (например, при чтении)
+    @Value("${search.sync.reconcile.min-age:PT1M}")
+    private Duration minAge;
+
+    private volatile Duration lastLag = Duration.ZERO;
+
+    public TaskSyncReconciler(SyncFreshnessService syncFreshnessService, MeterRegistry meterRegistry) {
+        this.syncFreshnessService = syncFreshnessService;
+        this.meterRegistry = meterRegistry;
+        this.reconcileTimer = Timer.builder("search.sync.reconcile.duration")
+                .description("Duration of a full background reconciliation")
+                .register(meterRegistry);
+        Gauge.builder("search.sync.lag", this, reconciler -> reconciler.lastLag.toMillis() / 1000.0)
+                .description("Age of the stalest active user's data before the last reconciliation")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Периодическая синхронизация активных пользователей (по умолчанию каждые 5 минут).
+     * Ждет завершения всех синхронизаций, занимая поток планировщика: его пул
+     * ({@code spring.task.scheduling.pool.size}) должен вмещать и опрос outbox.
+     */
+    @Scheduled(fixedDelayString = "${search.sync.reconcile.interval-ms:300000}")
+    public void scheduledSync() {
+        List<Long> users = syncFreshnessService.activeUsers(activeWindow);
+        log.info("Starting scheduled sync for {} active users", users.size());
+
+        reconcileTimer.record(() -> reconcile(users));
+    }
+
+    private void reconcile(List<Long> users) {
+        Instant now = Instant.now();
+        Duration maxLag = Duration.ZERO;
+        List<Long> due = new ArrayList<>();
+
+        for (Long userId : users) {
+            Instant synced = syncFreshnessService.lastSyncedAt(userId);
+            if (synced != null) {
+                Duration age = Duration.between(synced, now);
+                maxLag = age.compareTo(maxLag) > 0 ? age : maxLag;
+                if (age.compareTo(minAge) < 0) {
+                    count("skipped");
+                    continue;
+                }
+            }
+            due.add(userId);
+        }
+        lastLag = maxLag;
+
+        // Пачками по concurrency: каждый пользователь синхронизируется в своей транзакции
+        for (int from = 0; from < due.size(); from += concurrency) {
+            List<Long> batch = due.subList(from, Math.min(from + concurrency, due.size()));
+            List<CompletableFuture<SyncResult>> futures = batch.stream()
+                    .map(syncFreshnessService::refresh)
+                    .toList();
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+            for (CompletableFuture<SyncResult> future : futures) {
+                SyncResult result = future.join();
+                count(result.failed() ? "failed" : result.changed() ? "changed" : "unchanged");
+            }
+        }
+        log.info("Scheduled sync finished: {} users synced, {} skipped, lag before sync {}s",
+                due.size(), users.size() - due.size(), maxLag.toSeconds());
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("search.sync.reconcile.users", "outcome", outcome).increment();
+    }
+}
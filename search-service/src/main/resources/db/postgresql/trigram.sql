@@ -0,0 +1,6 @@
+-- Нечеткий поиск по задачам: триграммные GIN-индексы для операторов pg_trgm (<<%)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_title_trgm ON tasks USING GIN (lower(title) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_description_trgm ON tasks USING GIN (lower(description) gin_trgm_ops);
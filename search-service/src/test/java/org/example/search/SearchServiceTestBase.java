@@ -0,0 +1,72 @@
+package org.example.search;
+
+import org.example.search.client.TaskServiceClient;
+import org.example.search.model.Priority;
+import org.example.search.model.Task;
+import org.example.search.model.TaskStatus;
+import org.example.search.repository.ReplicationOffsetRepository;
+import org.example.search.repository.SyncStateRepository;
+import org.example.search.repository.TaskSearchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+
+/**
+ * Общий контекст тестов search-service: H2 вместо search_bd, заглушка клиента task-service,
+ * без config-server, Eureka, фоновой сверки и опроса outbox. Кэш результатов и индексы выключены:
+ * тесты готовят данные в обход событий синхронизации, и кэши о них не узнают.
+ */
+@SpringBootTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "search.outbox.enabled=false",
+        "search.sync.reconcile.interval-ms=3600000",
+        "search.cache.enabled=false",
+        "search.keyword-index.enabled=false",
+        "search.suggest.enabled=false"
+})
+@AutoConfigureMockMvc
+public abstract class SearchServiceTestBase {
+
+    protected static final long OWNER = 1L;
+    protected static final long STRANGER = 2L;
+    protected static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @MockitoBean
+    protected TaskServiceClient taskServiceClient;
+
+    @Autowired
+    protected TaskSearchRepository taskSearchRepository;
+
+    @Autowired
+    protected SyncStateRepository syncStateRepository;
+
+    @Autowired
+    protected ReplicationOffsetRepository replicationOffsetRepository;
+
+    @BeforeEach
+    void cleanDatabase() {
+        taskSearchRepository.deleteAllInBatch();
+        syncStateRepository.deleteAllInBatch();
+        replicationOffsetRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Задача, созданная и измененная в {@code BASE} плюс {@code minutes} минут.
+     */
+    protected static Task task(long id, long userId, String title, long minutes) {
+        Task task = new Task();
+        task.setId(id);
+        task.setUserId(userId);
+        task.setTitle(title);
+        task.setStatus(TaskStatus.TODO);
+        task.setPriority(Priority.MEDIUM);
+        task.setCreatedAt(BASE.plusMinutes(minutes));
+        task.setUpdatedAt(BASE.plusMinutes(minutes));
+        return task;
+    }
+}
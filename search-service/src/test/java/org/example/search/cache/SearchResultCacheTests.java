@@ -0,0 +1,55 @@
+package org.example.search.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.search.event.TaskDataChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Версии данных пользователей в ключах кэша результатов поиска.
+ */
+class SearchResultCacheTests {
+
+    private final RecentChanges recentChanges = new RecentChanges("", Duration.ZERO, 100);
+    private final SearchResultCache cache = new SearchResultCache(true, 100, Duration.ofMinutes(1),
+            new SimpleMeterRegistry(), recentChanges);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void changeHidesOnlyEntriesOfChangedUser() {
+        assertEquals(1, load(1L));
+        assertEquals(2, load(2L));
+        assertEquals(1, load(1L));
+
+        changed(1L);
+
+        assertEquals(3, load(1L));
+        assertEquals(2, load(2L));
+        assertEquals(3, load(1L));
+    }
+
+    @Test
+    void everyChangeGivesNewVersion() {
+        assertEquals(1, load(1L));
+        changed(1L);
+        assertEquals(2, load(1L));
+        changed(1L);
+        changed(1L);
+        assertEquals(3, load(1L));
+    }
+
+    private int load(Long userId) {
+        return cache.get(userId, "load", "params", loads::incrementAndGet);
+    }
+
+    private void changed(Long userId) {
+        TaskDataChangedEvent event = new TaskDataChangedEvent(userId, List.of(), List.of());
+        recentChanges.onTaskDataChanged(event);
+        cache.onTaskDataChanged(event);
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.search.config;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Маршрутизация соединений между двумя отдельными H2-базами: read-only транзакции
+ * идут в "реплику", остальные - в основную базу.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.replica.url=jdbc:h2:mem:replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DatabasePlatform.class, ReadReplicaDataSourceConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadReplicaDataSourceConfigTests {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            assertEquals("replica", currentDatabase());
+            // Hibernate не делает снимков и dirty checking для сущностей read-only сессии
+            assertTrue(entityManager.unwrap(Session.class).isDefaultReadOnly());
+        });
+    }
+
+    @Test
+    void readWriteTransactionsUsePrimary() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertEquals("primary", currentDatabase());
+            assertFalse(entityManager.unwrap(Session.class).isDefaultReadOnly());
+        });
+    }
+
+    private String currentDatabase() {
+        return String.valueOf(entityManager.createNativeQuery("SELECT DATABASE()").getSingleResult()).toLowerCase();
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.search.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Триграммное сходство, которым нечеткий поиск пользуется без pg_trgm, и перевод раскладки.
+ */
+class TrigramSimilarityTests {
+
+    @Test
+    void sameWordsAreFullySimilarRegardlessOfCaseAndPunctuation() {
+        assertEquals(1.0, TrigramSimilarity.wordSimilarity("Встреча", "встреча!"));
+        assertEquals(1.0, TrigramSimilarity.wordSimilarity("ёлка", "Елка"));
+    }
+
+    @Test
+    void typoSharesThirdOfTrigrams() {
+        // "  в", " вс", "вст", "ча " общие из 12 разных триграмм
+        assertEquals(4.0 / 12, TrigramSimilarity.wordSimilarity("встерча", "встреча"), 1e-9);
+    }
+
+    @Test
+    void queryIsComparedWithBestWindowOfConsecutiveWords() {
+        assertEquals(1.0, TrigramSimilarity.wordSimilarity("с командой", "Встреча с командой в пятницу"));
+        assertTrue(TrigramSimilarity.wordSimilarity("команда пятница", "Встреча с командой в пятницу") < 0.5);
+    }
+
+    @Test
+    void unrelatedOrEmptyTextIsNotSimilar() {
+        assertTrue(TrigramSimilarity.wordSimilarity("отчет", "Купить молоко") < 0.1);
+        assertEquals(0.0, TrigramSimilarity.wordSimilarity("отчет", null));
+        assertEquals(0.0, TrigramSimilarity.wordSimilarity("!!!", "отчет"));
+    }
+
+    @Test
+    void wrongLayoutIsSwappedBothWays() {
+        assertEquals("привет", KeyboardLayout.swap("ghbdtn"));
+        assertEquals("ghbdtn", KeyboardLayout.swap("ПРИВЕТ"));
+        assertEquals(1.0, TrigramSimilarity.wordSimilarity(KeyboardLayout.swap("ghbdtn"), "Привет команде"));
+    }
+
+    @Test
+    void textWithoutLettersHasNoOtherLayout() {
+        assertNull(KeyboardLayout.swap("2024"));
+        assertNull(KeyboardLayout.swap(null));
+    }
+}
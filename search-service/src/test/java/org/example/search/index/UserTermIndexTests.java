@@ -0,0 +1,85 @@
+package org.example.search.index;
+
+import org.example.search.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Поиск термов по подстроке через n-граммы словаря и объединение их списков задач.
+ */
+class UserTermIndexTests {
+
+    @Test
+    void findsTermsContainingSubstringOfAnyLength() {
+        UserTermIndex index = new UserTermIndex();
+        index.upsert(task(1, "Квартальный отчет", null));
+        index.upsert(task(2, "Отчетность", "сдать до пятницы"));
+        index.upsert(task(3, "Встреча", "подотчетный клиент"));
+
+        assertArrayEquals(new long[]{1, 2, 3}, index.search(Set.of("отчет")));
+        assertArrayEquals(new long[]{1, 2, 3}, index.search(Set.of("тч")));
+        assertArrayEquals(new long[]{3}, index.search(Set.of("подотч")));
+        assertArrayEquals(new long[]{2}, index.search(Set.of("ность")));
+        assertArrayEquals(new long[0], index.search(Set.of("отчетик")));
+    }
+
+    @Test
+    void everyQueryTermMustMatch() {
+        UserTermIndex index = new UserTermIndex();
+        index.upsert(task(1, "Отчет клиенту", null));
+        index.upsert(task(2, "Отчет", "внутренний"));
+
+        assertArrayEquals(new long[]{1}, index.search(Set.of("отчет", "клиент")));
+        assertArrayEquals(new long[0], index.search(Set.of("клиент", "внутр")));
+    }
+
+    @Test
+    void removedAndUpdatedTasksLeaveNoStaleTerms() {
+        UserTermIndex index = new UserTermIndex();
+        index.upsert(task(1, "Старое название", null));
+        index.upsert(task(2, "Старое", null));
+
+        index.upsert(task(1, "Новое название", null));
+        index.remove(2L);
+
+        assertArrayEquals(new long[0], index.search(Set.of("стар")));
+        assertArrayEquals(new long[]{1}, index.search(Set.of("нов")));
+        assertArrayEquals(new long[]{1}, index.search(Set.of("назв")));
+    }
+
+    @Test
+    void candidatesIncludeEveryLikeMatch() {
+        String[] words = {"отчет", "отчетность", "встреча", "клиент", "план", "планерка", "счет", "расчет"};
+        Random random = new Random(7);
+        UserTermIndex index = new UserTermIndex();
+        Task[] tasks = new Task[200];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = task(i + 1, words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)],
+                    words[random.nextInt(words.length)]);
+            index.upsert(tasks[i]);
+        }
+
+        for (String keyword : new String[]{"чет", "план", "ет", "т", "отчетн", "клиент"}) {
+            long[] candidates = index.search(TextTokenizer.tokenize(keyword));
+            for (Task task : tasks) {
+                boolean like = task.getTitle().contains(keyword) || task.getDescription().contains(keyword);
+                assertTrue(!like || Arrays.binarySearch(candidates, task.getId()) >= 0,
+                        () -> keyword + " in task " + task.getId());
+            }
+        }
+    }
+
+    private static Task task(long id, String title, String description) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(title);
+        task.setDescription(description);
+        return task;
+    }
+}
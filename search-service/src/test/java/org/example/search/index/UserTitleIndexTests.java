@@ -0,0 +1,61 @@
+package org.example.search.index;
+
+import org.example.search.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Подсказки названий по префиксу: сначала названия, начинающиеся с него, затем названия
+ * со словом, начинающимся с него.
+ */
+class UserTitleIndexTests {
+
+    @Test
+    void titleStartsComeBeforeWordStarts() {
+        UserTitleIndex index = new UserTitleIndex();
+        index.upsert(task(1, "Квартальный отчет"));
+        index.upsert(task(2, "Отчет по продажам"));
+        index.upsert(task(3, "Отчет"));
+        index.upsert(task(4, "Сдать отчетность"));
+        index.upsert(task(5, "Подотчетные суммы"));
+
+        assertEquals(List.of("Отчет", "Отчет по продажам", "Квартальный отчет", "Сдать отчетность"),
+                index.suggest("отчет", 10));
+        assertEquals(List.of("Отчет по продажам"), index.suggest("отчет по", 10));
+        assertEquals(List.of("Отчет", "Отчет по продажам"), index.suggest("отчет", 2));
+    }
+
+    @Test
+    void sameTitleIsSuggestedOnce() {
+        UserTitleIndex index = new UserTitleIndex();
+        index.upsert(task(1, "Созвон с клиентом"));
+        index.upsert(task(2, "Созвон с клиентом"));
+
+        assertEquals(List.of("Созвон с клиентом"), index.suggest("созв", 10));
+        assertEquals(List.of("Созвон с клиентом"), index.suggest("клиен", 10));
+    }
+
+    @Test
+    void renamedAndRemovedTasksAreNotSuggested() {
+        UserTitleIndex index = new UserTitleIndex();
+        index.upsert(task(1, "Старое название"));
+        index.upsert(task(2, "Встреча"));
+
+        index.upsert(task(1, "Новое название"));
+        index.remove(2L);
+
+        assertEquals(List.of(), index.suggest("стар", 10));
+        assertEquals(List.of(), index.suggest("встр", 10));
+        assertEquals(List.of("Новое название"), index.suggest("назв", 10));
+    }
+
+    private static Task task(long id, String title) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(title);
+        return task;
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.search.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.search.config.DatabasePlatform;
+import org.example.search.model.Priority;
+import org.example.search.model.Task;
+import org.example.search.model.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пакетный {@code upsertAll} отправляет одну JDBC-пачку на {@code search.sync.upsert-batch-size} задач,
+ * а {@code saveAll} (merge: SELECT + INSERT/UPDATE на каждую сущность) обращается к БД на каждую задачу.
+ * H2 работает в режиме PostgreSQL; каждый вызов {@code execute*} у JDBC-оператора
+ * считается одним сетевым обращением, как это было бы с реальным сервером.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:upsert-batching;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "search.sync.upsert-batch-size=500"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DatabasePlatform.class, TaskUpsertBatchingTests.RoundTripCounterConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+class TaskUpsertBatchingTests {
+
+    private static final int TASKS = 2_000;
+    private static final int BATCH_SIZE = 500;
+
+    private static final AtomicLong roundTrips = new AtomicLong();
+
+    @Autowired
+    private TaskSearchRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void cleanUp() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    void upsertAllSendsOneBatchPerBatchSize() {
+        List<Task> tasks = generateTasks(LocalDateTime.now());
+
+        Measurement saveAllInsert = measure(() -> repository.saveAll(tasks));
+        List<Task> updated = generateTasks(LocalDateTime.now().plusMinutes(1));
+        Measurement saveAllUpdate = measure(() -> repository.saveAll(updated));
+
+        repository.deleteAllInBatch();
+
+        Measurement upsertInsert = measure(() -> repository.upsertAll(tasks));
+        Measurement upsertUpdate = measure(() -> repository.upsertAll(updated));
+
+        report("saveAll, new rows", saveAllInsert);
+        report("saveAll, existing rows", saveAllUpdate);
+        report("upsertAll, new rows", upsertInsert);
+        report("upsertAll, existing rows", upsertUpdate);
+
+        assertEquals(TASKS, repository.count());
+        int batches = (TASKS + BATCH_SIZE - 1) / BATCH_SIZE;
+        assertEquals(batches, upsertInsert.roundTrips());
+        assertEquals(batches, upsertUpdate.roundTrips());
+        assertTrue(saveAllInsert.roundTrips() >= TASKS);
+    }
+
+    private Measurement measure(Runnable action) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        roundTrips.set(0);
+        long start = System.nanoTime();
+        transaction.executeWithoutResult(status -> action.run());
+        return new Measurement(roundTrips.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void report(String scenario, Measurement measurement) {
+        log.info("{}: {} round-trips, {} ms", scenario, measurement.roundTrips(), measurement.millis());
+    }
+
+    private static List<Task> generateTasks(LocalDateTime updatedAt) {
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (long id = 1; id <= TASKS; id++) {
+            Task task = new Task();
+            task.setId(id);
+            task.setTitle("Задача " + id);
+            task.setDescription("Описание задачи " + id);
+            task.setStatus(TaskStatus.values()[(int) (id % TaskStatus.values().length)]);
+            task.setPriority(Priority.values()[(int) (id % Priority.values().length)]);
+            task.setUserId(id % 100 + 1);
+            task.setDeadline(updatedAt.plusDays(id % 30));
+            task.setCreatedAt(updatedAt.minusDays(1));
+            task.setUpdatedAt(updatedAt);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private record Measurement(long roundTrips, long millis) {
+    }
+
+    @TestConfiguration
+    static class RoundTripCounterConfig {
+
+        @Bean
+        static BeanPostProcessor roundTripCounter() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return countingProxy(dataSource, DataSource.class);
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        // Оборачивает Connection и Statement, считая вызовы execute* (executeBatch — одно обращение)
+        private static Object countingProxy(Object target, Class<?> type) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    roundTrips.incrementAndGet();
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+                if (result instanceof Connection || result instanceof Statement) {
+                    return countingProxy(result, method.getReturnType());
+                }
+                return result;
+            });
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.search.service;
+
+import org.example.search.SearchServiceTestBase;
+import org.example.search.dto.OutboxBatch;
+import org.example.search.dto.OutboxEvent;
+import org.example.search.dto.TaskChanges;
+import org.example.search.model.SyncState;
+import org.example.search.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Применение пачек outbox: повторное применение, удаленные задачи, позиция потребителя
+ * и полная пересинхронизация после пропуска удаленных по сроку хранения событий.
+ */
+class OutboxApplyTests extends SearchServiceTestBase {
+
+    private static final String CONSUMER = "task-service-outbox";
+
+    @Autowired
+    private TaskDataSyncService taskDataSyncService;
+
+    @Autowired
+    private OutboxRelayConsumer outboxRelayConsumer;
+
+    @Autowired
+    private SyncFreshnessService syncFreshnessService;
+
+    @AfterEach
+    void disableConsumer() {
+        ReflectionTestUtils.setField(outboxRelayConsumer, "enabled", false);
+    }
+
+    @Test
+    void replayedBatchChangesNothing() {
+        Task task = task(1, OWNER, "Отчет", 5);
+        OutboxBatch batch = batch(List.of(event(10, task), event(11, task(2, OWNER, "Встреча", 5))), null);
+
+        assertEquals(2, taskDataSyncService.applyOutboxBatch(CONSUMER, batch));
+        assertEquals(0, taskDataSyncService.applyOutboxBatch(CONSUMER, batch));
+
+        assertEquals(2, taskSearchRepository.count());
+        assertEquals("Отчет", taskSearchRepository.findById(1L).orElseThrow().getTitle());
+    }
+
+    @Test
+    void olderStateDoesNotOverwriteNewerOne() {
+        taskSearchRepository.save(task(1, OWNER, "Новое", 10));
+
+        assertEquals(0, taskDataSyncService.applyOutboxBatch(CONSUMER,
+                batch(List.of(event(10, task(1, OWNER, "Старое", 5))), null)));
+
+        assertEquals("Новое", taskSearchRepository.findById(1L).orElseThrow().getTitle());
+    }
+
+    @Test
+    void eventOfTaskThatIsGoneDeletesIt() {
+        taskSearchRepository.save(task(1, OWNER, "Отчет", 5));
+        // Задачу удалили после записи события, и task-service отдал его без состояния задачи
+        OutboxEvent updated = event(10, null);
+        updated.setTaskId(1L);
+        updated.setType("UPDATED");
+
+        assertEquals(1, taskDataSyncService.applyOutboxBatch(CONSUMER, batch(List.of(updated), null)));
+
+        assertTrue(taskSearchRepository.findById(1L).isEmpty());
+    }
+
+    @Test
+    void offsetAdvancesToLastAppliedEvent() {
+        assertEquals(0, taskDataSyncService.getOutboxOffset(CONSUMER));
+
+        taskDataSyncService.applyOutboxBatch(CONSUMER, batch(List.of(event(10, task(1, OWNER, "Отчет", 5))), null));
+        assertEquals(10, taskDataSyncService.getOutboxOffset(CONSUMER));
+
+        taskDataSyncService.applyOutboxBatch(CONSUMER, batch(List.of(event(12, task(1, OWNER, "Отчет", 6))), null));
+        assertEquals(12, taskDataSyncService.getOutboxOffset(CONSUMER));
+    }
+
+    @Test
+    void purgedEventsForceFullResync() {
+        taskDataSyncService.applyOutboxBatch(CONSUMER, batch(List.of(event(10, task(1, OWNER, "Отчет", 5))), null));
+        TaskChanges changes = new TaskChanges();
+        changes.setTasks(List.of(task(1, OWNER, "Отчет", 5)));
+        changes.setWatermark(BASE.plusMinutes(5));
+        when(taskServiceClient.getTaskChanges(eq(OWNER), any(), any()))
+                .thenReturn(ResponseEntity.ok().eTag("\"v1\"").body(changes));
+        syncFreshnessService.refresh(OWNER).join();
+        syncFreshnessService.markOutboxCaughtUp(Instant.now());
+        assertNotNull(syncFreshnessService.lastSyncedAt(OWNER));
+        assertNotNull(syncStateRepository.findById(OWNER).orElseThrow().getWatermark());
+
+        // События 11-19 удалены по сроку хранения, не дойдя до потребителя
+        when(taskServiceClient.getOutboxEvents(eq(10L), anyInt()))
+                .thenReturn(batch(List.of(event(20, task(2, OWNER, "Встреча", 7))), 20L));
+        when(taskServiceClient.getOutboxEvents(eq(20L), anyInt())).thenReturn(batch(List.of(), 20L));
+        ReflectionTestUtils.setField(outboxRelayConsumer, "enabled", true);
+        outboxRelayConsumer.poll();
+
+        SyncState reset = syncStateRepository.findById(OWNER).orElseThrow();
+        assertNull(reset.getWatermark());
+        assertNull(reset.getEtag());
+        assertNull(syncFreshnessService.lastSyncedAt(OWNER));
+        assertEquals(20, taskDataSyncService.getOutboxOffset(CONSUMER));
+        assertNotNull(taskSearchRepository.findById(2L).orElse(null));
+    }
+
+    @Test
+    void retainedEventsAfterOffsetAreNotAGap() {
+        taskDataSyncService.applyOutboxBatch(CONSUMER, batch(List.of(event(10, task(1, OWNER, "Отчет", 5))), null));
+        SyncState state = new SyncState();
+        state.setUserId(OWNER);
+        state.setWatermark(BASE);
+        state.setLastSyncedAt(BASE);
+        syncStateRepository.save(state);
+
+        when(taskServiceClient.getOutboxEvents(anyLong(), anyInt()))
+                .thenReturn(batch(List.of(event(12, task(2, OWNER, "Встреча", 7))), 3L));
+        ReflectionTestUtils.setField(outboxRelayConsumer, "enabled", true);
+        outboxRelayConsumer.poll();
+
+        assertEquals(BASE, syncStateRepository.findById(OWNER).orElseThrow().getWatermark());
+        assertEquals(12, taskDataSyncService.getOutboxOffset(CONSUMER));
+    }
+
+    private static OutboxEvent event(long id, Task task) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setUserId(OWNER);
+        event.setType(task == null ? "DELETED" : "UPDATED");
+        if (task != null) {
+            event.setTaskId(task.getId());
+            event.setTask(task);
+        }
+        return event;
+    }
+
+    private static OutboxBatch batch(List<OutboxEvent> events, Long oldestId) {
+        OutboxBatch batch = new OutboxBatch();
+        batch.setEvents(events);
+        batch.setLastId(events.isEmpty() ? oldestId : events.get(events.size() - 1).getId());
+        batch.setOldestId(oldestId);
+        return batch;
+    }
+}
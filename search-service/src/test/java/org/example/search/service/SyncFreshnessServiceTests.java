@@ -0,0 +1,110 @@
+package org.example.search.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.search.dto.SyncResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Когда чтение ждет синхронизацию, а когда только запускает ее в фоне, и разделение
+ * одной синхронизации параллельными запросами пользователя.
+ */
+class SyncFreshnessServiceTests {
+
+    private static final long USER = 1L;
+    private static final SyncResult SYNCED = new SyncResult(false, 1, 0, false);
+
+    private final TaskDataSyncService taskDataSyncService = mock(TaskDataSyncService.class);
+    // Синхронизации ставятся в очередь и выполняются тестом явно
+    private final List<Runnable> queued = new ArrayList<>();
+    private final SyncFreshnessService service = new SyncFreshnessService();
+
+    @BeforeEach
+    void setUp() {
+        when(taskDataSyncService.syncUserTasks(USER)).thenReturn(SYNCED);
+        ReflectionTestUtils.setField(service, "taskDataSyncService", taskDataSyncService);
+        ReflectionTestUtils.setField(service, "syncExecutor", (Executor) queued::add);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "maxStaleness", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(service, "retryBackoff", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(service, "waitForFirstSync", true);
+        ReflectionTestUtils.setField(service, "firstSyncTimeout", Duration.ofSeconds(5));
+    }
+
+    @Test
+    void firstReadWaitsForSync() {
+        ReflectionTestUtils.setField(service, "syncExecutor",
+                (Executor) command -> CompletableFuture.runAsync(command));
+
+        service.ensureFresh(USER);
+
+        verify(taskDataSyncService).syncUserTasks(USER);
+        assertTrue(queued.isEmpty());
+    }
+
+    @Test
+    void firstReadGivesUpAfterTimeout() {
+        ReflectionTestUtils.setField(service, "firstSyncTimeout", Duration.ofMillis(50));
+
+        service.ensureFresh(USER);
+
+        // Синхронизация осталась в очереди, чтение не дождалось ее
+        assertEquals(1, queued.size());
+        verify(taskDataSyncService, never()).syncUserTasks(USER);
+    }
+
+    @Test
+    void concurrentRequestsShareOneSync() {
+        CompletableFuture<SyncResult> first = service.refresh(USER);
+        CompletableFuture<SyncResult> second = service.refresh(USER);
+
+        assertSame(first, second);
+        assertEquals(1, queued.size());
+        queued.remove(0).run();
+        assertSame(SYNCED, second.join());
+
+        assertNotSame(first, service.refresh(USER));
+    }
+
+    @Test
+    void freshDataIsReadWithoutSync() {
+        service.refresh(USER);
+        queued.remove(0).run();
+
+        service.ensureFresh(USER);
+
+        assertTrue(queued.isEmpty());
+        verify(taskDataSyncService, times(1)).syncUserTasks(USER);
+    }
+
+    @Test
+    void staleDataIsRefreshedInBackground() {
+        service.refresh(USER);
+        queued.remove(0).run();
+        ReflectionTestUtils.setField(service, "maxStaleness", Duration.ZERO);
+
+        service.ensureFresh(USER);
+
+        // Чтение не ждало: обновление только поставлено в очередь
+        assertEquals(1, queued.size());
+        assertFalse(service.refresh(USER).isDone());
+    }
+}
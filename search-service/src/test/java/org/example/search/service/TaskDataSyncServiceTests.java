@@ -0,0 +1,137 @@
+package org.example.search.service;
+
+import org.example.search.SearchServiceTestBase;
+import org.example.search.client.NotModifiedException;
+import org.example.search.dto.SyncResult;
+import org.example.search.dto.TaskChanges;
+import org.example.search.model.SyncState;
+import org.example.search.model.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Синхронизация задач пользователя: окно запроса от водяного знака, переход на полную сверку,
+ * удаления по отметкам task-service, ответ 304 и сохранение только изменившихся задач.
+ */
+class TaskDataSyncServiceTests extends SearchServiceTestBase {
+
+    // Водяной знак в пределах search.sync.max-incremental-gap; H2 хранит время с точностью до микросекунд
+    private static final LocalDateTime RECENT = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusHours(1);
+
+    @Autowired
+    private TaskDataSyncService taskDataSyncService;
+
+    @Test
+    void incrementalSyncRequestsChangesSinceWatermarkMinusOverlap() {
+        saveState(RECENT, "\"v1\"");
+        when(taskServiceClient.getTaskChanges(eq(OWNER), any(), any()))
+                .thenReturn(ResponseEntity.ok().eTag("\"v2\"").body(changes(List.of(), List.of(), RECENT.plusMinutes(3))));
+
+        SyncResult result = taskDataSyncService.syncUserTasks(OWNER);
+
+        assertFalse(result.full());
+        verify(taskServiceClient).getTaskChanges(OWNER, RECENT.minusSeconds(5), "\"v1\"");
+        SyncState state = syncStateRepository.findById(OWNER).orElseThrow();
+        assertEquals(RECENT.plusMinutes(3), state.getWatermark());
+        assertEquals("\"v2\"", state.getEtag());
+    }
+
+    @Test
+    void watermarkOlderThanMaxGapFallsBackToFullSync() {
+        saveState(RECENT.minusDays(8), "\"v1\"");
+        taskSearchRepository.save(task(1, OWNER, "Удалена в task-service", 5));
+        taskSearchRepository.save(task(2, OWNER, "Осталась", 5));
+        when(taskServiceClient.getTaskChanges(eq(OWNER), isNull(), any()))
+                .thenReturn(ResponseEntity.ok().body(changes(List.of(task(2, OWNER, "Осталась", 5)), List.of(), RECENT)));
+
+        SyncResult result = taskDataSyncService.syncUserTasks(OWNER);
+
+        assertTrue(result.full());
+        assertEquals(1, result.deleted());
+        assertEquals(List.of(2L), taskSearchRepository.findIdsByUserId(OWNER));
+        assertEquals(RECENT, syncStateRepository.findById(OWNER).orElseThrow().getWatermark());
+    }
+
+    @Test
+    void deletedIdsRemoveLocalTasks() {
+        saveState(RECENT, null);
+        taskSearchRepository.save(task(1, OWNER, "Удалена", 5));
+        taskSearchRepository.save(task(2, OWNER, "Осталась", 5));
+        when(taskServiceClient.getTaskChanges(eq(OWNER), any(), any()))
+                .thenReturn(ResponseEntity.ok().body(changes(List.of(), List.of(1L), RECENT.plusMinutes(1))));
+
+        SyncResult result = taskDataSyncService.syncUserTasks(OWNER);
+
+        assertEquals(1, result.deleted());
+        assertEquals(List.of(2L), taskSearchRepository.findIdsByUserId(OWNER));
+    }
+
+    @Test
+    void notModifiedResponseKeepsDataAndWatermark() {
+        saveState(RECENT, "\"v1\"");
+        taskSearchRepository.save(task(1, OWNER, "Отчет", 5));
+        when(taskServiceClient.getTaskChanges(eq(OWNER), any(), eq("\"v1\"")))
+                .thenThrow(new NotModifiedException("getTaskChanges"));
+
+        SyncResult result = taskDataSyncService.syncUserTasks(OWNER);
+
+        assertFalse(result.failed());
+        assertFalse(result.changed());
+        SyncState state = syncStateRepository.findById(OWNER).orElseThrow();
+        assertEquals(RECENT, state.getWatermark());
+        assertEquals("\"v1\"", state.getEtag());
+        assertTrue(state.getLastSyncedAt().isAfter(RECENT));
+        assertEquals(List.of(1L), taskSearchRepository.findIdsByUserId(OWNER));
+    }
+
+    @Test
+    void onlyTasksWithChangedVersionAreSaved() {
+        saveState(RECENT, null);
+        taskSearchRepository.save(task(1, OWNER, "Без изменений", 5));
+        taskSearchRepository.save(task(2, OWNER, "Старое", 5));
+        // Задача 1 пришла в окне перекрытия повторно: ее версия совпадает с локальной
+        Task same = task(1, OWNER, "Локальная копия не перезаписывается", 5);
+        Task changed = task(2, OWNER, "Новое", 6);
+        Task created = task(3, OWNER, "Новая задача", 6);
+        when(taskServiceClient.getTaskChanges(eq(OWNER), any(), any()))
+                .thenReturn(ResponseEntity.ok().body(changes(List.of(same, changed, created), List.of(), RECENT)));
+
+        SyncResult result = taskDataSyncService.syncUserTasks(OWNER);
+
+        assertEquals(2, result.upserted());
+        assertEquals("Без изменений", taskSearchRepository.findById(1L).orElseThrow().getTitle());
+        assertEquals("Новое", taskSearchRepository.findById(2L).orElseThrow().getTitle());
+        assertEquals("Новая задача", taskSearchRepository.findById(3L).orElseThrow().getTitle());
+    }
+
+    private void saveState(LocalDateTime watermark, String etag) {
+        SyncState state = new SyncState();
+        state.setUserId(OWNER);
+        state.setWatermark(watermark);
+        state.setEtag(etag);
+        state.setLastSyncedAt(watermark);
+        syncStateRepository.save(state);
+    }
+
+    private static TaskChanges changes(List<Task> tasks, List<Long> deletedIds, LocalDateTime watermark) {
+        TaskChanges changes = new TaskChanges();
+        changes.setTasks(tasks);
+        changes.setDeletedIds(deletedIds);
+        changes.setWatermark(watermark);
+        return changes;
+    }
+}
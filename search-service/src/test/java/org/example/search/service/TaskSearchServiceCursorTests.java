@@ -0,0 +1,138 @@
+package org.example.search.service;
+
+import org.example.search.SearchServiceTestBase;
+import org.example.search.dto.BadSearchRequestException;
+import org.example.search.dto.CursorPage;
+import org.example.search.dto.SearchCriteria;
+import org.example.search.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset-пагинация: обход страниц при совпадающих значениях поля сортировки,
+ * проверка курсора и параметров, подсчет общего числа только по запросу.
+ */
+class TaskSearchServiceCursorTests extends SearchServiceTestBase {
+
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        // По две задачи на каждое время создания и одинаковые названия у 1, 4 и 7
+        taskSearchRepository.saveAll(List.of(
+                task(1, OWNER, "Отчет", 0),
+                task(2, OWNER, "Звонок", 0),
+                task(3, OWNER, "Встреча", 1),
+                task(4, OWNER, "Отчет", 1),
+                task(5, OWNER, "Аудит", 2),
+                task(6, OWNER, "Бюджет", 2),
+                task(7, OWNER, "Отчет", 3),
+                task(8, STRANGER, "Отчет", 3)));
+    }
+
+    @Test
+    void pagesThroughTiesOnSortValueWithoutGapsOrRepeats() {
+        assertEquals(List.of(7L, 6L, 5L, 4L, 3L, 2L, 1L), readAll("createdAt", "DESC", 2));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), readAll("createdAt", "ASC", 3));
+        assertEquals(List.of(5L, 6L, 3L, 2L, 1L, 4L, 7L), readAll("title", "ASC", 2));
+    }
+
+    @Test
+    void rejectsCursorOfAnotherSortOrder() {
+        CursorPage<Task> first = taskSearchService.searchTasksByCursor(criteria("createdAt", "DESC", 2, null));
+
+        assertThrows(BadSearchRequestException.class, () ->
+                taskSearchService.searchTasksByCursor(criteria("updatedAt", "DESC", 2, first.nextCursor())));
+        assertThrows(BadSearchRequestException.class, () ->
+                taskSearchService.searchTasksByCursor(criteria("createdAt", "ASC", 2, first.nextCursor())));
+    }
+
+    @Test
+    void countsTotalOnlyWhenRequested() {
+        SearchCriteria criteria = criteria("createdAt", "DESC", 2, null);
+        assertNull(taskSearchService.searchTasksByCursor(criteria).totalElements());
+
+        criteria.setWithTotal(true);
+        CursorPage<Task> first = taskSearchService.searchTasksByCursor(criteria);
+        criteria.setCursor(first.nextCursor());
+        CursorPage<Task> second = taskSearchService.searchTasksByCursor(criteria);
+
+        assertEquals(7L, first.totalElements());
+        assertEquals(7L, second.totalElements());
+    }
+
+    @Test
+    void answersBadRequestForInvalidCursorSizeAndSort() throws Exception {
+        mockMvc.perform(get("/api/search/user/{userId}/page/cursor", OWNER).param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/search/user/{userId}/page/cursor", OWNER).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(cursorSearch("{\"userId\": 1, \"size\": 0}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(cursorSearch("{\"userId\": 1, \"size\": null}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(cursorSearch("{\"userId\": 1, \"sortBy\": \"priority\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/search/user/{userId}/page/cursor", OWNER))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void answersBadRequestForUnsupportedSortInEverySearchMode() throws Exception {
+        for (String mode : List.of("KEYWORD", "FULL_TEXT", "FUZZY")) {
+            mockMvc.perform(post("/api/search/advanced").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"userId\": 1, \"keyword\": \"отчет\", \"searchMode\": \"" + mode
+                                    + "\", \"sortBy\": \"color\"}"))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(post("/api/search/advanced").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\": 1, \"sortDirection\": \"sideways\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Long> readAll(String sortBy, String direction, int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        CursorPage<Task> page;
+        do {
+            page = taskSearchService.searchTasksByCursor(criteria(sortBy, direction, size, cursor));
+            page.content().forEach(task -> ids.add(task.getId()));
+            cursor = page.nextCursor();
+        } while (page.hasNext());
+        assertFalse(page.content().isEmpty());
+        return ids;
+    }
+
+    private static SearchCriteria criteria(String sortBy, String direction, int size, String cursor) {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setUserId(OWNER);
+        criteria.setSortBy(sortBy);
+        criteria.setSortDirection(direction);
+        criteria.setSize(size);
+        criteria.setCursor(cursor);
+        return criteria;
+    }
+
+    private static MockHttpServletRequestBuilder cursorSearch(String body) {
+        return post("/api/search/advanced/cursor").contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.search.service;
+
+import org.example.search.SearchServiceTestBase;
+import org.example.search.dto.FacetCounts;
+import org.example.search.dto.SearchCriteria;
+import org.example.search.model.Priority;
+import org.example.search.model.Task;
+import org.example.search.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Счетчики задач по статусу, приоритету и дедлайну при тех же фильтрах, что и поиск.
+ */
+class TaskSearchServiceFacetTests extends SearchServiceTestBase {
+
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @Test
+    void countsByStatusPriorityAndDeadline() {
+        LocalDateTime lastWeek = LocalDateTime.now().minusDays(7);
+        LocalDateTime endOfToday = LocalDate.now().atTime(23, 59);
+        save(1, TaskStatus.TODO, Priority.HIGH, lastWeek);
+        save(2, TaskStatus.IN_PROGRESS, Priority.HIGH, lastWeek);
+        // Завершенные и отмененные задачи не просрочены, даже если срок прошел
+        save(3, TaskStatus.DONE, Priority.LOW, lastWeek);
+        save(4, TaskStatus.CANCELLED, Priority.LOW, lastWeek);
+        save(5, TaskStatus.TODO, Priority.MEDIUM, endOfToday);
+        save(6, TaskStatus.TODO, Priority.MEDIUM, LocalDateTime.now().plusMonths(2));
+        save(7, TaskStatus.TODO, Priority.MEDIUM, null);
+        Task foreign = task(8, STRANGER, "Чужая", 0);
+        foreign.setDeadline(lastWeek);
+        taskSearchRepository.save(foreign);
+
+        FacetCounts counts = taskSearchService.countFacets(criteria());
+
+        assertEquals(7, counts.total());
+        assertEquals(Map.of(TaskStatus.TODO, 4L, TaskStatus.IN_PROGRESS, 1L, TaskStatus.DONE, 1L,
+                TaskStatus.CANCELLED, 1L), counts.byStatus());
+        assertEquals(Map.of(Priority.HIGH, 2L, Priority.LOW, 2L, Priority.MEDIUM, 3L), counts.byPriority());
+        assertEquals(2L, counts.byDeadline().get("overdue"));
+        assertEquals(1L, counts.byDeadline().get("today"));
+        assertEquals(1L, counts.byDeadline().get("thisWeek"));
+    }
+
+    @Test
+    void countsOnlyTasksMatchingFilters() {
+        LocalDateTime lastWeek = LocalDateTime.now().minusDays(7);
+        save(1, TaskStatus.TODO, Priority.HIGH, lastWeek);
+        save(2, TaskStatus.TODO, Priority.LOW, lastWeek);
+        save(3, TaskStatus.DONE, Priority.HIGH, lastWeek);
+        SearchCriteria criteria = criteria();
+        criteria.setPriority(Priority.HIGH);
+
+        FacetCounts counts = taskSearchService.countFacets(criteria);
+
+        assertEquals(2, counts.total());
+        assertEquals(Map.of(TaskStatus.TODO, 1L, TaskStatus.DONE, 1L), counts.byStatus());
+        assertEquals(1L, counts.byDeadline().get("overdue"));
+        assertEquals(0L, counts.byDeadline().get("today"));
+    }
+
+    private void save(long id, TaskStatus status, Priority priority, LocalDateTime deadline) {
+        Task task = task(id, OWNER, "Задача " + id, id);
+        task.setStatus(status);
+        task.setPriority(priority);
+        task.setDeadline(deadline);
+        taskSearchRepository.save(task);
+    }
+
+    private static SearchCriteria criteria() {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setUserId(OWNER);
+        return criteria;
+    }
+}
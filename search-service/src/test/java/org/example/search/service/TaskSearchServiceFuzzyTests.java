@@ -0,0 +1,62 @@
+package org.example.search.service;
+
+import org.example.search.SearchServiceTestBase;
+import org.example.search.dto.SearchCriteria;
+import org.example.search.dto.SearchMode;
+import org.example.search.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нечеткий поиск на H2, где нет pg_trgm: работает запасной вариант с триграммным сходством на Java.
+ */
+class TaskSearchServiceFuzzyTests extends SearchServiceTestBase {
+
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @BeforeEach
+    void setUp() {
+        taskSearchRepository.saveAll(List.of(
+                task(1, OWNER, "Встреча с командой", 0),
+                task(2, OWNER, "Привет новому сотруднику", 1),
+                task(3, OWNER, "Купить молоко", 2),
+                task(4, STRANGER, "Встреча с клиентом", 3)));
+    }
+
+    @Test
+    void findsTitleWithTypo() {
+        assertEquals(List.of(1L), ids(fuzzy("встерча", null)));
+    }
+
+    @Test
+    void findsQueryTypedInWrongLayout() {
+        assertEquals(List.of(2L), ids(fuzzy("ghbdtn", null)));
+    }
+
+    @Test
+    void thresholdCutsOffWeakMatches() {
+        // Сходство "встерча" и "встреча" - 1/3: выше порога по умолчанию 0.3, но ниже 0.5
+        assertTrue(fuzzy("встерча", 0.5).isEmpty());
+        assertEquals(List.of(1L), ids(fuzzy("встреча", 0.5)));
+    }
+
+    private List<Task> fuzzy(String keyword, Double threshold) {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setUserId(OWNER);
+        criteria.setKeyword(keyword);
+        criteria.setSearchMode(SearchMode.FUZZY);
+        criteria.setSimilarityThreshold(threshold);
+        return taskSearchService.searchTasksWithoutPagination(criteria);
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+}
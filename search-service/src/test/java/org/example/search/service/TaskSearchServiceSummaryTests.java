@@ -0,0 +1,97 @@
+package org.example.search.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.search.SearchServiceTestBase;
+import org.example.search.dto.SearchCriteria;
+import org.example.search.dto.TaskSummary;
+import org.example.search.model.Priority;
+import org.example.search.model.Task;
+import org.example.search.model.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Краткое представление списков (view=summary): те же задачи и порядок, что и у полного, без description.
+ */
+class TaskSearchServiceSummaryTests extends SearchServiceTestBase {
+
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 5; id++) {
+            Task task = task(id, OWNER, "Задача " + (6 - id), id);
+            task.setDescription("Длинное описание " + id);
+            task.setStatus(id % 2 == 0 ? TaskStatus.DONE : TaskStatus.TODO);
+            task.setPriority(Priority.values()[(int) (id % Priority.values().length)]);
+            task.setDeadline(BASE.plusDays(id));
+            taskSearchRepository.save(task);
+        }
+        taskSearchRepository.save(task(6, STRANGER, "Чужая", 0));
+    }
+
+    @Test
+    void pagedSummariesMatchFullResults() {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setUserId(OWNER);
+        criteria.setStatus(TaskStatus.TODO);
+        criteria.setSortBy("title");
+        criteria.setSortDirection("ASC");
+        criteria.setSize(2);
+
+        Page<Task> full = taskSearchService.searchTasks(criteria);
+        Page<TaskSummary> summaries = taskSearchService.searchTaskSummaries(criteria);
+
+        assertEquals(full.getContent().stream().map(TaskSummary::from).toList(), summaries.getContent());
+        assertEquals(List.of(5L, 3L), summaries.getContent().stream().map(TaskSummary::id).toList());
+        assertEquals(3, summaries.getTotalElements());
+    }
+
+    @Test
+    void unpagedSummariesMatchFullResults() {
+        // Полный список по статусу не упорядочен, краткий - по createdAt DESC
+        List<TaskSummary> summaries = taskSearchService.findSummariesByStatus(OWNER, "DONE");
+
+        assertEquals(List.of(4L, 2L), summaries.stream().map(TaskSummary::id).toList());
+        assertEquals(taskSearchService.findByStatus(OWNER, "DONE").stream()
+                        .map(TaskSummary::from)
+                        .sorted(Comparator.comparing(TaskSummary::id).reversed())
+                        .toList(),
+                summaries);
+    }
+
+    @Test
+    void summaryViewOmitsDescription() throws Exception {
+        String body = mockMvc.perform(get("/api/search/user/{userId}/page", OWNER)
+                        .param("view", "summary").param("size", "3"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode content = objectMapper.readTree(body).get("content");
+        assertEquals(3, content.size());
+        content.forEach(summary -> {
+            assertTrue(summary.has("title"));
+            assertFalse(summary.has("description"));
+        });
+    }
+}
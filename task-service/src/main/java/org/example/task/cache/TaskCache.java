@@ -0,0 +1,117 @@
+package org.example.task.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.task.event.TasksChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Ограниченный по размеру и времени жизни кэш чтений задач: списки задач пользователя,
+ * задачи по id и версия для ETag. Ключ содержит версию данных пользователя, которая
+ * увеличивается сразу после коммита изменивших его задачи транзакций, в потоке запроса.
+ * Чтение, начавшееся до коммита, сохранит результат под прежней версией, где его уже не найдут.
+ * Версии хранятся для ограниченного числа пользователей: вытесненная версия при следующем
+ * обращении заменяется новой, и записи под старой становятся недостижимы.
+ * Чтение с реплики может не увидеть изменение и после коммита, поэтому при заданной реплике
+ * результаты, прочитанные в течение {@code task.replica.max-lag} после изменения, не сохраняются.
+ * Статистика доступна в actuator как метрики cache.* с тегом cache=tasks.
+ * Кэш локален для экземпляра: изменения через другой экземпляр видны не позже чем через TTL.
+ */
+@Component
+public class TaskCache {
+
+    // Записи о последних изменениях живут дольше окна отставания на время самого долгого чтения
+    private static final Duration MAX_READ_TIME = Duration.ofMinutes(1);
+
+    private final boolean enabled;
+    private final Cache<CacheKey, Object> cache;
+    private final Cache<Long, Long> versions;
+    private final AtomicLong lastVersion = new AtomicLong();
+    // Время последнего изменения задач пользователя (System.nanoTime)
+    private final Cache<Long, Long> changedAt;
+    private final long replicaLagNanos;
+
+    public TaskCache(@Value("${task.cache.enabled:true}") boolean enabled,
+                     @Value("${task.cache.max-size:10000}") long maxSize,
+                     @Value("${task.cache.ttl:PT10S}") Duration ttl,
+                     @Value("${spring.datasource.replica.url:}") String replicaUrl,
+                     @Value("${task.replica.max-lag:PT5S}") Duration replicaMaxLag,
+                     MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Без обращений версия истекает не раньше записей кэша, сохраненных под ней
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .build();
+        Duration replicaLag = StringUtils.hasText(replicaUrl) ? replicaMaxLag : Duration.ZERO;
+        this.replicaLagNanos = replicaLag.toNanos();
+        this.changedAt = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(replicaLag.plus(MAX_READ_TIME))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tasks");
+    }
+
+    /**
+     * Возвращает закэшированный результат чтения или загружает и сохраняет его.
+     * {@code params} должны иметь корректные equals/hashCode. Результат общий для всех вызывающих:
+     * изменяемые объекты нужно сохранять и отдавать копиями.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, String operation, Object params, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CacheKey key = new CacheKey(userId, currentVersion(userId), operation, params);
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        long started = System.nanoTime();
+        T result = loader.get();
+        if (result != null) {
+            // Сначала сохраняем, затем проверяем: изменение, отмеченное после проверки, увеличит версию
+            cache.put(key, result);
+            if (changedSince(userId, started)) {
+                cache.asMap().remove(key, result);
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onTasksChanged(TasksChangedEvent event) {
+        long now = System.nanoTime();
+        event.userIds().forEach(userId -> {
+            changedAt.put(userId, now);
+            versions.put(userId, lastVersion.incrementAndGet());
+        });
+    }
+
+    // Могло ли чтение, начатое в started, не увидеть последнее изменение задач пользователя
+    private boolean changedSince(Long userId, long started) {
+        Long lastChange = changedAt.getIfPresent(userId);
+        return lastChange != null && lastChange - started >= -replicaLagNanos;
+    }
+
+    private long currentVersion(Long userId) {
+        return versions.get(userId, id -> lastVersion.incrementAndGet());
+    }
+
+    private record CacheKey(Long userId, long version, String operation, Object params) {
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.task.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Выравнивает последовательность {@code tasks_seq} по уже существующим задачам.
+ * Раньше id задач выдавала IDENTITY-колонка, и новая последовательность, созданная Hibernate,
+ * начиналась бы с 1. Выполняется до запуска веб-сервера и только для PostgreSQL;
+ * последовательность, уже ушедшая вперед, не трогается.
+ * <p>
+ * Экземпляры со старой версией (IDENTITY) нельзя запускать вместе с новыми:
+ * их id будут пересекаться с пулом последовательности.
+ */
+@Component
+@Slf4j
+public class TaskIdSequenceInitializer implements SmartInitializingSingleton {
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            if (!databasePlatform.isPostgres()) {
+                return;
+            }
+            long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tasks", Long.class);
+            long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM tasks_seq", Long.class);
+            if (maxId > lastValue) {
+                // Пул Hibernate выдает id от (nextval - allocationSize + 1) до nextval, поэтому первым будет maxId + 1
+                jdbcTemplate.queryForObject("SELECT setval('tasks_seq', ?)", Long.class, maxId);
+                log.info("Moved tasks_seq to existing max task id {}", maxId);
+            }
+        } catch (Exception e) {
+            log.error("Failed to align tasks_seq with existing task ids: {}", e.getMessage());
+        }
+    }
+}
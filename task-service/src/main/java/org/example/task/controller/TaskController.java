@@ -1,7 +1,13 @@
 package org.example.task.controller;
 
+import org.example.task.dto.ChangeFeedPage;
+import org.example.task.dto.OutboxBatch;
+import org.example.task.dto.TaskChanges;
+import org.example.task.dto.TaskPatch;
+import org.example.task.model.Priority;
 import org.example.task.model.Task;
 import org.example.task.model.TaskStatus;
+import org.example.task.service.OutboxService;
 import org.example.task.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -9,22 +15,39 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/tasks")
 @Tag(name = "Tasks", description = "API для управления задачами")
 public class TaskController {
 
+    private static final int MAX_FEED_PAGE_SIZE = 5000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String HAS_NEXT_HEADER = "X-Has-Next";
+    // view=summary - списки без description (TaskSummary)
+    private static final String SUMMARY_VIEW = "summary";
+
     private static final Logger log = LoggerFactory.getLogger(TaskController.class);
     private final TaskService taskService;
+    private final OutboxService outboxService;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, OutboxService outboxService) {
         this.taskService = taskService;
+        this.outboxService = outboxService;
     }
 
     @Operation(summary = "Создать задачу", description = "Создает новую задачу")
@@ -38,20 +61,126 @@ public class TaskController {
         return taskService.createTask(task);
     }
 
-    @Operation(summary = "Получить все задачи пользователя", description = "Возвращает список всех задач для указанного пользователя")
+    @Operation(summary = "Создать несколько задач",
+            description = "Создает до " + MAX_BATCH_SIZE + " задач в одной транзакции; INSERT выполняются пачками")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задачи успешно созданы"),
+            @ApiResponse(responseCode = "400", description = "Неверные параметры запроса или слишком большая пачка")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<Task>> createTasks(@RequestBody List<@Valid Task> tasks) {
+        log.info("Пакетное создание задач: count={}", tasks.size());
+        if (tasks.isEmpty() || tasks.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(taskService.createTasks(tasks));
+    }
+
+    @Operation(summary = "Получить задачи пользователя",
+            description = "Возвращает задачи указанного пользователя; view=summary - без описания. " +
+                    "Необязательные фильтры status, priority, updatedSince. При page/size возвращает страницу " +
+                    "в порядке создания, заголовок X-Has-Next показывает, есть ли следующая; без них - все задачи. " +
+                    "Поддерживает If-None-Match: если задачи не менялись, возвращает 304")
     @GetMapping
-    public List<Task> getAllTasksByUser(@RequestParam Long userId) {
-        log.info("Запрос всех задач для пользователя: userId={}", userId);
-        return taskService.getAllTasksByUser(userId);
+    public ResponseEntity<List<?>> getAllTasksByUser(@RequestParam Long userId,
+                                                     @RequestParam(defaultValue = "full") String view,
+                                                     @RequestParam(required = false) TaskStatus status,
+                                                     @RequestParam(required = false) Priority priority,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+                                                     @RequestParam(required = false) Integer page,
+                                                     @RequestParam(required = false) Integer size,
+                                                     WebRequest request) {
+        log.info("Запрос задач для пользователя: userId={}, view={}, status={}, priority={}, updatedSince={}, page={}, size={}",
+                userId, view, status, priority, updatedSince, page, size);
+        boolean paged = page != null || size != null;
+        int pageNumber = page != null ? page : 0;
+        int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+        if (paged && (pageNumber < 0 || pageSize < 1 || pageSize > MAX_PAGE_SIZE)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        boolean summary = SUMMARY_VIEW.equalsIgnoreCase(view);
+        boolean filtered = paged || status != null || priority != null || updatedSince != null;
+        // Версия общая для всех задач пользователя, поэтому в вариант входят и параметры выборки
+        String variant = (summary ? SUMMARY_VIEW : "full")
+                + (filtered ? "-" + status + "-" + priority + "-" + updatedSince : "")
+                + (paged ? "-" + pageNumber + "-" + pageSize : "");
+        if (request.checkNotModified(etag(taskService.getTasksVersion(userId), variant))) {
+            return null;
+        }
+
+        if (!filtered) {
+            return ResponseEntity.ok(summary
+                    ? taskService.getTaskSummariesByUser(userId)
+                    : taskService.getAllTasksByUser(userId));
+        }
+        Pageable pageable = paged ? PageRequest.of(pageNumber, pageSize) : Pageable.unpaged();
+        Slice<?> slice = summary
+                ? taskService.getTaskSummaryPage(userId, status, priority, updatedSince, pageable)
+                : taskService.getTaskPage(userId, status, priority, updatedSince, pageable);
+        return ResponseEntity.ok()
+                .header(HAS_NEXT_HEADER, String.valueOf(slice.hasNext()))
+                .body(slice.getContent());
+    }
+
+    @Operation(summary = "Получить изменения задач пользователя",
+            description = "Возвращает задачи, измененные начиная с since, и идентификаторы удаленных задач. Без since возвращает все задачи. " +
+                    "Поддерживает If-None-Match: если задачи не менялись, возвращает 304")
+    @GetMapping("/changes")
+    public TaskChanges getTaskChanges(@RequestParam Long userId,
+                                      @RequestParam(required = false)
+                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                      WebRequest request) {
+        log.info("Запрос изменений задач для пользователя: userId={}, since={}", userId, since);
+        if (request.checkNotModified(etag(taskService.getTasksVersion(userId), since == null ? "all" : since.toString()))) {
+            return null;
+        }
+        return taskService.getTaskChanges(userId, since);
+    }
+
+    @Operation(summary = "Лента изменений задач всех пользователей",
+            description = "Возвращает изменения и удаления задач после курсора (afterUpdatedAt, afterId) страницами фиксированного размера. " +
+                    "Изменения последних секунд (task.feed.settle-delay) появляются в ленте после этой задержки")
+    @GetMapping("/feed")
+    public ResponseEntity<ChangeFeedPage> getChangeFeed(
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterUpdatedAt,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.info("Запрос ленты изменений: afterUpdatedAt={}, afterId={}, limit={}", afterUpdatedAt, afterId, limit);
+        if (limit < 1 || limit > MAX_FEED_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(taskService.getChangeFeed(afterUpdatedAt, afterId, limit));
     }
 
-    @Operation(summary = "Получить задачу по ID", description = "Возвращает задачу по её идентификатору")
+    @Operation(summary = "События outbox",
+            description = "Возвращает события изменения задач после afterId вместе с текущим состоянием задач")
+    @GetMapping("/outbox")
+    public ResponseEntity<OutboxBatch> getOutboxEvents(
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.debug("Запрос событий outbox: afterId={}, limit={}", afterId, limit);
+        if (limit < 1 || limit > MAX_FEED_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(outboxService.readBatch(afterId, limit));
+    }
+
+    @Operation(summary = "Получить задачу по ID",
+            description = "Возвращает задачу по её идентификатору. Поддерживает If-None-Match: если задача не менялась, возвращает 304")
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTaskById(@PathVariable Long id, @RequestParam Long userId) {
+    public ResponseEntity<Task> getTaskById(@PathVariable Long id, @RequestParam Long userId, WebRequest request) {
         log.info("Запрос задачи по id={} для пользователя userId={}", id, userId);
-        return taskService.getTaskById(id, userId)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        Optional<Task> task = taskService.getTaskById(id, userId);
+        if (task.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(etag(String.valueOf(task.get().getUpdatedAt()), "task" + id))) {
+            return null;
+        }
+        return ResponseEntity.ok(task.get());
     }
 
     @Operation(summary = "Обновить задачу", description = "Обновляет данные задачи")
@@ -82,4 +211,32 @@ public class TaskController {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Обновить несколько задач",
+            description = "Применяет изменения к задачам пользователя в одной транзакции; поля, равные null, не меняются. " +
+                    "Возвращает обновленные задачи, чужие и несуществующие id пропускаются")
+    @PatchMapping("/batch")
+    public ResponseEntity<List<Task>> updateTasks(@RequestParam Long userId, @RequestBody List<@Valid TaskPatch> patches) {
+        log.info("Пакетное обновление задач: count={}, userId={}", patches.size(), userId);
+        if (patches.isEmpty() || patches.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(taskService.updateTasks(userId, patches));
+    }
+
+    @Operation(summary = "Удалить несколько задач",
+            description = "Удаляет задачи пользователя по списку id в одной транзакции и возвращает id удаленных задач")
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<Long>> deleteTasks(@RequestParam Long userId, @RequestBody List<Long> ids) {
+        log.info("Пакетное удаление задач: count={}, userId={}", ids.size(), userId);
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(taskService.deleteTasks(userId, ids));
+    }
+
+    // ETag представления: версия данных + то, что отличает представления (вид, since, id)
+    private static String etag(String version, String variant) {
+        return "\"" + version + "-" + variant + "\"";
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.task.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Страница ленты изменений задач всех пользователей, упорядоченная по {@code (changedAt, taskId)}.
+ * Курсор следующей страницы - {@code (nextUpdatedAt, nextId)}.
+ */
+public record ChangeFeedPage(List<TaskChange> changes, LocalDateTime nextUpdatedAt, Long nextId, boolean hasMore) {
+}
@@ -0,0 +1,11 @@
+package org.example.task.dto;
+
+import java.util.List;
+
+/**
+ * Пачка событий outbox. {@code lastId} передается в следующий запрос как {@code afterId}.
+ * {@code oldestId} - наименьший id, еще хранящийся в outbox: если он больше {@code afterId + 1},
+ * события после позиции потребителя могли быть удалены по сроку хранения.
+ */
+public record OutboxBatch(List<OutboxEvent> events, Long lastId, Long oldestId) {
+}
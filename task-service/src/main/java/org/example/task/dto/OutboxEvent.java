@@ -0,0 +1,13 @@
+package org.example.task.dto;
+
+import org.example.task.model.OutboxEventType;
+import org.example.task.model.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие outbox для потребителя. {@code task} - текущее состояние задачи
+ * или {@code null}, если задача уже удалена.
+ */
+public record OutboxEvent(Long id, Long taskId, Long userId, OutboxEventType type, LocalDateTime createdAt, Task task) {
+}
@@ -0,0 +1,17 @@
+package org.example.task.dto;
+
+import org.example.task.model.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись ленты изменений: новая версия задачи ({@code UPSERT}) или ее удаление ({@code DELETE}).
+ * Для удаления {@code task} равен {@code null}.
+ */
+public record TaskChange(Type type, Long taskId, Long userId, LocalDateTime changedAt, Task task) {
+
+    public enum Type {
+        UPSERT,
+        DELETE
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.task.dto;
+
+import org.example.task.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Изменения задач пользователя с момента {@code since}: измененные/созданные задачи,
+ * идентификаторы удаленных задач и максимальная отметка времени среди них
+ * (водяной знак для следующего запроса, {@code null} если изменений нет).
+ */
+public record TaskChanges(List<Task> tasks, List<Long> deletedIds, LocalDateTime watermark) {
+}
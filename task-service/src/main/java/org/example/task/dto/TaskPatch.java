@@ -0,0 +1,20 @@
+package org.example.task.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.example.task.model.Priority;
+import org.example.task.model.TaskStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Изменение одной задачи в пакетном обновлении. Поля, равные {@code null}, не меняются.
+ */
+public record TaskPatch(
+        @NotNull(message = "Task ID is required") Long id,
+        @Size(min = 1, max = 255, message = "Title must be between 1 and 255 characters") String title,
+        @Size(max = 1000, message = "Description cannot exceed 1000 characters") String description,
+        TaskStatus status,
+        Priority priority,
+        LocalDateTime deadline) {
+}
@@ -0,0 +1,13 @@
+package org.example.task.dto;
+
+import org.example.task.model.Priority;
+import org.example.task.model.TaskStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Краткое представление задачи для списков ({@code view=summary}): без description,
+ * выбирается из БД только этими колонками.
+ */
+public record TaskSummary(Long id, String title, TaskStatus status, Priority priority, LocalDateTime deadline) {
+}
@@ -0,0 +1,17 @@
+package org.example.task.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Версия набора задач пользователя: количество задач и максимальный {@code updatedAt}.
+ * Любое создание или изменение сдвигает максимум, удаление уменьшает количество,
+ * поэтому версия меняется при каждом изменении списка.
+ */
+public record TaskVersion(Long count, LocalDateTime lastUpdatedAt) {
+
+    public String tag() {
+        long updated = lastUpdatedAt == null ? 0 : lastUpdatedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return count + "-" + updated;
+    }
+}
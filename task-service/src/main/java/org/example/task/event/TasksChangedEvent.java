@@ -0,0 +1,10 @@
+package org.example.task.event;
+
+import java.util.Collection;
+
+/**
+ * Публикуется в транзакции, изменившей задачи перечисленных пользователей.
+ * Слушатели получают событие только после коммита.
+ */
+public record TasksChangedEvent(Collection<Long> userIds) {
+}
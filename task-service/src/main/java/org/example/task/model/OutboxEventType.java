@@ -0,0 +1,7 @@
+package org.example.task.model;
+
+public enum OutboxEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
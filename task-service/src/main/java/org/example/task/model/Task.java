@@ -5,11 +5,19 @@ import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_user_updated", columnList = "user_id, updated_at"),
+        @Index(name = "idx_tasks_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_tasks_updated_id", columnList = "updated_at, id"),
+        @Index(name = "idx_tasks_deadline_status", columnList = "deadline, status")
+})
 public class Task {
 
+    // Последовательность с пулом id: Hibernate выдает id без обращения к БД на каждую вставку
+    // и может отправлять INSERT пачками (с IDENTITY пакетная вставка отключается)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Title is required")
@@ -59,11 +67,16 @@ public class Task {
     }
 
     private void checkOverdue() {
-        if (deadline != null && LocalDateTime.now().isAfter(deadline) && status != TaskStatus.DONE) {
+        if (isOverdue(status, deadline, LocalDateTime.now())) {
             status = TaskStatus.OVERDUE;
         }
     }
 
+    // Правило просрочки; используется и при изменении задач в обход сущности
+    public static boolean isOverdue(TaskStatus status, LocalDateTime deadline, LocalDateTime now) {
+        return deadline != null && now.isAfter(deadline) && status != TaskStatus.DONE;
+    }
+
     // Конструкторы
     public Task() {}
 
@@ -76,6 +89,15 @@ public class Task {
         this.deadline = deadline;
     }
 
+    // Отсоединенная копия со всеми полями: кэш чтений хранит и отдает копии, а не общие экземпляры
+    public Task copy() {
+        Task copy = new Task(title, description, status, priority, userId, deadline);
+        copy.id = id;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+
     // Геттеры и сеттеры
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,59 @@
+package org.example.task.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Событие об изменении задачи, записываемое в той же транзакции, что и само изменение
+ * (transactional outbox). Потребители читают события по возрастанию id.
+ */
+@Entity
+@Table(name = "task_outbox", indexes = {
+        @Index(name = "idx_task_outbox_created", columnList = "created_at")
+})
+public class TaskOutboxEvent {
+
+    // IDENTITY, а не пул последовательности: id должны выдаваться в порядке записи
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxEventType type;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Конструкторы
+    public TaskOutboxEvent() {}
+
+    public TaskOutboxEvent(Long taskId, Long userId, OutboxEventType type) {
+        this.taskId = taskId;
+        this.userId = userId;
+        this.type = type;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Геттеры и сеттеры
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public OutboxEventType getType() { return type; }
+    public void setType(OutboxEventType type) { this.type = type; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
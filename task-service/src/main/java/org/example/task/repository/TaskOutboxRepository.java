@@ -0,0 +1,33 @@
+package org.example.task.repository;
+
+import org.example.task.model.TaskOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskOutboxRepository extends JpaRepository<TaskOutboxEvent, Long>, TaskOutboxRepositoryCustom {
+
+    // События после afterId, записанные не позже createdBefore, по возрастанию id
+    @Query("SELECT e FROM TaskOutboxEvent e WHERE e.id > :afterId AND e.createdAt <= :createdBefore ORDER BY e.id")
+    List<TaskOutboxEvent> findBatch(@Param("afterId") Long afterId,
+                                    @Param("createdBefore") LocalDateTime createdBefore,
+                                    Pageable pageable);
+
+    // Наименьший хранящийся id или null, если outbox пуст
+    @Query("SELECT MIN(e.id) FROM TaskOutboxEvent e")
+    Long findOldestId();
+
+    // Удалить события старше срока хранения, кроме последнего: по нему потребитель
+    // отличает удаленные события от еще не записанных
+    @Modifying
+    @Query("DELETE FROM TaskOutboxEvent e WHERE e.createdAt < :cutoff " +
+            "AND e.id < (SELECT MAX(last.id) FROM TaskOutboxEvent last)")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
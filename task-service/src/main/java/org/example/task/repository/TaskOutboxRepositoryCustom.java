@@ -0,0 +1,17 @@
+package org.example.task.repository;
+
+import org.example.task.model.TaskOutboxEvent;
+
+import java.util.List;
+
+/**
+ * Пакетная запись событий outbox в обход контекста персистентности.
+ */
+public interface TaskOutboxRepositoryCustom {
+
+    /**
+     * Вставляет события пачками JDBC-операторов. Id выдает IDENTITY-колонка в порядке вставки;
+     * у переданных объектов id не заполняется.
+     */
+    void insertAll(List<TaskOutboxEvent> events);
+}
@@ -0,0 +1,33 @@
+package org.example.task.repository;
+
+import org.example.task.model.TaskOutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public class TaskOutboxRepositoryImpl implements TaskOutboxRepositoryCustom {
+
+    private static final String INSERT = "INSERT INTO task_outbox (task_id, user_id, type, created_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Override
+    public void insertAll(List<TaskOutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, events, batchSize, (ps, event) -> {
+            ps.setLong(1, event.getTaskId());
+            ps.setLong(2, event.getUserId());
+            ps.setString(3, event.getType().name());
+            ps.setTimestamp(4, Timestamp.valueOf(event.getCreatedAt()));
+        });
+    }
+}
@@ -1,27 +1,103 @@
 package org.example.task.repository;
 
+import org.example.task.dto.TaskSummary;
+import org.example.task.dto.TaskVersion;
 import org.example.task.model.Task;
 import org.example.task.model.TaskStatus;
 import org.example.task.model.Priority;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
 
-    // Найти все задачи пользователя
+    // Фильтры страницы задач; порядок совпадает с индексом (user_id, created_at)
+    String PAGE_FILTER = "AND (:status IS NULL OR t.status = :status) " +
+            "AND (:priority IS NULL OR t.priority = :priority) " +
+            "AND (:updatedSince IS NULL OR t.updatedAt >= :updatedSince) " +
+            "ORDER BY t.createdAt, t.id";
+
+    // Найти все задачи пользователя. Read-only транзакция нужна, когда метод вызывается
+    // вне транзакции сервиса (в потоке circuit breaker): тогда чтение идет на реплику
+    @Transactional(readOnly = true)
     List<Task> findByUserId(Long userId);
 
+    // Краткие данные задач пользователя для списков, без описания
+    @Query("SELECT new org.example.task.dto.TaskSummary(t.id, t.title, t.status, t.priority, t.deadline) " +
+            "FROM Task t WHERE t.userId = :userId")
+    @Transactional(readOnly = true)
+    List<TaskSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    // Задачи пользователя с необязательными фильтрами (null - без фильтра) по порядку создания.
+    // Slice запрашивает на строку больше страницы вместо отдельного COUNT
+    @Query("SELECT t FROM Task t WHERE t.userId = :userId " + PAGE_FILTER)
+    @Transactional(readOnly = true)
+    Slice<Task> findPageByUserId(@Param("userId") Long userId,
+                                 @Param("status") TaskStatus status,
+                                 @Param("priority") Priority priority,
+                                 @Param("updatedSince") LocalDateTime updatedSince,
+                                 Pageable pageable);
+
+    // То же для view=summary
+    @Query("SELECT new org.example.task.dto.TaskSummary(t.id, t.title, t.status, t.priority, t.deadline) " +
+            "FROM Task t WHERE t.userId = :userId " + PAGE_FILTER)
+    @Transactional(readOnly = true)
+    Slice<TaskSummary> findSummaryPageByUserId(@Param("userId") Long userId,
+                                               @Param("status") TaskStatus status,
+                                               @Param("priority") Priority priority,
+                                               @Param("updatedSince") LocalDateTime updatedSince,
+                                               Pageable pageable);
+
+    // Версия задач пользователя для ETag: считается по индексу (user_id, updated_at)
+    @Query("SELECT new org.example.task.dto.TaskVersion(COUNT(t), MAX(t.updatedAt)) FROM Task t WHERE t.userId = :userId")
+    TaskVersion findVersionByUserId(@Param("userId") Long userId);
+
+    // Найти задачи пользователя, измененные начиная с указанного момента
+    List<Task> findByUserIdAndUpdatedAtGreaterThanEqual(Long userId, LocalDateTime since);
+
+    // Задачи всех пользователей, измененные после курсора (updatedAt, id) и раньше before, по возрастанию курсора
+    @Query("SELECT t FROM Task t WHERE (t.updatedAt > :updatedAt OR (t.updatedAt = :updatedAt AND t.id > :id)) " +
+            "AND t.updatedAt < :before ORDER BY t.updatedAt, t.id")
+    List<Task> findChangedAfter(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id,
+                                @Param("before") LocalDateTime before, Pageable pageable);
+
     // Найти задачу по ID и пользователю (для проверки владения)
     Optional<Task> findByIdAndUserId(Long id, Long userId);
 
-    // Проверить существование задачи у пользователя
-    boolean existsByIdAndUserId(Long id, Long userId);
+    // Задачи пользователя из переданного списка id (для пакетных операций)
+    List<Task> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    // Id задач пользователя из переданного списка, без загрузки сущностей
+    @Query("SELECT t.id FROM Task t WHERE t.userId = :userId AND t.id IN :ids")
+    List<Long> findIdsByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Задачи с прошедшим дедлайном, которые еще нужно пометить OVERDUE: (id, userId) по возрастанию дедлайна.
+    // Строки блокируются до конца транзакции, заблокированные другим экземпляром пропускаются
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // -2: SKIP LOCKED
+    @Query("SELECT t.id, t.userId FROM Task t WHERE t.deadline < :now AND t.status NOT IN :exempt ORDER BY t.deadline")
+    List<Object[]> findOverdueCandidates(@Param("now") LocalDateTime now,
+                                         @Param("exempt") Collection<TaskStatus> exempt,
+                                         Pageable pageable);
 
-    // Удалить задачу по ID и пользователю
-    void deleteByIdAndUserId(Long id, Long userId);
+    // Пометить задачи OVERDUE одним UPDATE; @PreUpdate при этом не вызывается, поэтому updatedAt задается явно
+    @Modifying
+    @Query("UPDATE Task t SET t.status = org.example.task.model.TaskStatus.OVERDUE, t.updatedAt = :now WHERE t.id IN :ids")
+    int markOverdue(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package org.example.task.repository;
+
+import org.example.task.model.Task;
+import org.example.task.model.TaskStatus;
+
+import java.util.Optional;
+
+/**
+ * Изменения задачи одним оператором без предварительной загрузки сущности.
+ * Вместе с изменением записываются событие outbox и отметка об удалении;
+ * в PostgreSQL все это - один запрос с CTE, в остальных СУБД - несколько.
+ * Изменения не попадают в контекст персистентности текущей транзакции.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Заменяет поля задачи пользователя значениями из {@code values}. Статус становится OVERDUE
+     * по тем же правилам, что при сохранении сущности. Пустой результат - задачи нет или она чужая.
+     */
+    Optional<Task> updateOwned(Long id, Long userId, Task values);
+
+    /**
+     * Меняет статус задачи пользователя; OVERDUE выставляется по дедлайну, хранящемуся в строке.
+     */
+    Optional<Task> updateStatusOwned(Long id, Long userId, TaskStatus status);
+
+    /**
+     * Удаляет задачу пользователя и возвращает число удаленных строк (0 или 1).
+     */
+    int deleteOwned(Long id, Long userId);
+}
@@ -0,0 +1,97 @@
+package org.example.task.repository;
+
+import org.example.task.config.DatabasePlatform;
+import org.example.task.model.OutboxEventType;
+import org.example.task.model.Task;
+import org.example.task.model.TaskStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    private static final RowMapper<Task> TASK_ROW_MAPPER = BeanPropertyRowMapper.newInstance(Task.class);
+
+    private static final String UPDATE = "UPDATE tasks SET title = ?, description = ?, status = ?, priority = ?, " +
+            "deadline = ?, updated_at = ? WHERE id = ? AND user_id = ?";
+
+    // deadline < ? для задачи без дедлайна дает NULL, и статус остается переданным
+    private static final String UPDATE_STATUS = "UPDATE tasks SET " +
+            "status = CASE WHEN deadline < ? AND ? <> 'DONE' THEN 'OVERDUE' ELSE ? END, updated_at = ? " +
+            "WHERE id = ? AND user_id = ?";
+
+    private static final String DELETE = "DELETE FROM tasks WHERE id = ? AND user_id = ?";
+
+    private static final String INSERT_EVENT = "INSERT INTO task_outbox (task_id, user_id, type, created_at) " +
+            "VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_TOMBSTONE = "INSERT INTO task_tombstones (task_id, user_id, deleted_at) " +
+            "VALUES (?, ?, ?)";
+
+    // PostgreSQL: изменение, событие outbox и отметка об удалении за одно обращение к БД
+    private static final String POSTGRES_UPDATE_RETURNING = "WITH updated AS (%s RETURNING *), " +
+            "event AS (INSERT INTO task_outbox (task_id, user_id, type, created_at) " +
+            "SELECT id, user_id, 'UPDATED', updated_at FROM updated) " +
+            "SELECT * FROM updated";
+
+    private static final String POSTGRES_DELETE = "WITH deleted AS (" + DELETE + " RETURNING id, user_id), " +
+            "tombstone AS (INSERT INTO task_tombstones (task_id, user_id, deleted_at) " +
+            "SELECT id, user_id, ? FROM deleted), " +
+            "event AS (INSERT INTO task_outbox (task_id, user_id, type, created_at) " +
+            "SELECT id, user_id, 'DELETED', ? FROM deleted) " +
+            "SELECT COUNT(*) FROM deleted";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Override
+    public Optional<Task> updateOwned(Long id, Long userId, Task values) {
+        LocalDateTime now = LocalDateTime.now();
+        TaskStatus status = Task.isOverdue(values.getStatus(), values.getDeadline(), now)
+                ? TaskStatus.OVERDUE
+                : values.getStatus();
+        return update(UPDATE, id, userId, values.getTitle(), values.getDescription(), status.name(),
+                values.getPriority().name(), values.getDeadline(), now, id, userId);
+    }
+
+    @Override
+    public Optional<Task> updateStatusOwned(Long id, Long userId, TaskStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        return update(UPDATE_STATUS, id, userId, now, status.name(), status.name(), now, id, userId);
+    }
+
+    @Override
+    public int deleteOwned(Long id, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (databasePlatform.isPostgres()) {
+            return jdbcTemplate.queryForObject(POSTGRES_DELETE, Integer.class, id, userId, now, now);
+        }
+        int deleted = jdbcTemplate.update(DELETE, id, userId);
+        if (deleted > 0) {
+            jdbcTemplate.update(INSERT_TOMBSTONE, id, userId, now);
+            jdbcTemplate.update(INSERT_EVENT, id, userId, OutboxEventType.DELETED.name(), now);
+        }
+        return deleted;
+    }
+
+    private Optional<Task> update(String sql, Long id, Long userId, Object... args) {
+        if (databasePlatform.isPostgres()) {
+            List<Task> updated = jdbcTemplate.query(POSTGRES_UPDATE_RETURNING.formatted(sql), TASK_ROW_MAPPER, args);
+            return updated.stream().findFirst();
+        }
+        if (jdbcTemplate.update(sql, args) == 0) {
+            return Optional.empty();
+        }
+        Task task = jdbcTemplate.queryForObject("SELECT * FROM tasks WHERE id = ?", TASK_ROW_MAPPER, id);
+        jdbcTemplate.update(INSERT_EVENT, id, userId, OutboxEventType.UPDATED.name(), task.getUpdatedAt());
+        return Optional.of(task);
+    }
+}
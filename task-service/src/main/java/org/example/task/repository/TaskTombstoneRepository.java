@@ -0,0 +1,31 @@
+package org.example.task.repository;
+
+import org.example.task.model.TaskTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long>, TaskTombstoneRepositoryCustom {
+
+    // Удаления задач пользователя, произошедшие начиная с указанного момента
+    List<TaskTombstone> findByUserIdAndDeletedAtGreaterThanEqual(Long userId, LocalDateTime since);
+
+    // Удаления всех пользователей после курсора (deletedAt, taskId) и раньше before, по возрастанию курсора
+    @Query("SELECT t FROM TaskTombstone t WHERE (t.deletedAt > :deletedAt " +
+            "OR (t.deletedAt = :deletedAt AND t.taskId > :taskId)) AND t.deletedAt < :before " +
+            "ORDER BY t.deletedAt, t.taskId")
+    List<TaskTombstone> findDeletedAfter(@Param("deletedAt") LocalDateTime deletedAt, @Param("taskId") Long taskId,
+                                         @Param("before") LocalDateTime before, Pageable pageable);
+
+    // Удалить отметки старше срока хранения
+    @Modifying
+    @Query("DELETE FROM TaskTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
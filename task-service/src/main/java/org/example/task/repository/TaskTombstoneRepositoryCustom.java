@@ -0,0 +1,17 @@
+package org.example.task.repository;
+
+import org.example.task.model.TaskTombstone;
+
+import java.util.List;
+
+/**
+ * Пакетная запись отметок об удалении в обход контекста персистентности.
+ */
+public interface TaskTombstoneRepositoryCustom {
+
+    /**
+     * Вставляет отметки пачками JDBC-операторов. В отличие от {@code saveAll} не выполняет
+     * SELECT для каждой отметки: id задачи назначен заранее, и Spring Data сочла бы ее не новой.
+     */
+    void insertAll(List<TaskTombstone> tombstones);
+}
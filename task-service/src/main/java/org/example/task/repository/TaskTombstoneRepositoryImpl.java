@@ -0,0 +1,32 @@
+package org.example.task.repository;
+
+import org.example.task.model.TaskTombstone;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public class TaskTombstoneRepositoryImpl implements TaskTombstoneRepositoryCustom {
+
+    private static final String INSERT = "INSERT INTO task_tombstones (task_id, user_id, deleted_at) VALUES (?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Override
+    public void insertAll(List<TaskTombstone> tombstones) {
+        if (tombstones.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, tombstones, batchSize, (ps, tombstone) -> {
+            ps.setLong(1, tombstone.getTaskId());
+            ps.setLong(2, tombstone.getUserId());
+            ps.setTimestamp(3, Timestamp.valueOf(tombstone.getDeletedAt()));
+        });
+    }
+}
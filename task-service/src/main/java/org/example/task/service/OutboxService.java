@@ -0,0 +1,94 @@
+package org.example.task.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.task.dto.OutboxBatch;
+import org.example.task.dto.OutboxEvent;
+import org.example.task.model.OutboxEventType;
+import org.example.task.model.Task;
+import org.example.task.model.TaskOutboxEvent;
+import org.example.task.repository.TaskOutboxRepository;
+import org.example.task.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@Transactional
+public class OutboxService {
+
+    @Autowired
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    // События моложе этой задержки не отдаются: даем завершиться транзакциям,
+    // получившим меньший id, но закоммиченным позже
+    @Value("${task.outbox.settle-delay:PT2S}")
+    private Duration settleDelay;
+
+    @Value("${task.outbox.retention:P1D}")
+    private Duration retention;
+
+    /**
+     * Записывает событие в outbox. Должно вызываться внутри транзакции изменения задачи.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long taskId, Long userId, OutboxEventType type) {
+        taskOutboxRepository.save(new TaskOutboxEvent(taskId, userId, type));
+    }
+
+    /**
+     * Записывает события пакетных операций пачками JDBC-операторов.
+     * Должно вызываться внутри транзакции изменения задач.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<TaskOutboxEvent> events) {
+        taskOutboxRepository.insertAll(events);
+    }
+
+    /**
+     * Возвращает события после {@code afterId} вместе с текущим состоянием задач.
+     * Читается с основной БД: отставание реплики может превысить задержку settle-delay,
+     * и потребитель сдвинул бы позицию за еще не видимые на реплике события.
+     */
+    public OutboxBatch readBatch(Long afterId, int limit) {
+        List<TaskOutboxEvent> events = taskOutboxRepository.findBatch(afterId,
+                LocalDateTime.now().minus(settleDelay), PageRequest.of(0, limit));
+        Long oldestId = taskOutboxRepository.findOldestId();
+        if (events.isEmpty()) {
+            return new OutboxBatch(List.of(), afterId, oldestId);
+        }
+
+        List<Long> taskIds = events.stream().map(TaskOutboxEvent::getTaskId).distinct().toList();
+        Map<Long, Task> tasks = taskRepository.findAllById(taskIds).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<OutboxEvent> result = events.stream()
+                .map(event -> new OutboxEvent(event.getId(), event.getTaskId(), event.getUserId(),
+                        event.getType(), event.getCreatedAt(), tasks.get(event.getTaskId())))
+                .toList();
+        return new OutboxBatch(result, events.get(events.size() - 1).getId(), oldestId);
+    }
+
+    /**
+     * Удаляет события старше срока хранения, кроме последнего (раз в час)
+     */
+    @Scheduled(fixedDelayString = "${task.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        int deleted = taskOutboxRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        log.info("Purged {} outbox events older than {}", deleted, retention);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.task.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.task.event.TasksChangedEvent;
+import org.example.task.model.OutboxEventType;
+import org.example.task.model.TaskOutboxEvent;
+import org.example.task.model.TaskStatus;
+import org.example.task.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Помечает OVERDUE задачи, дедлайн которых прошел без изменения самой задачи:
+ * {@code Task.checkOverdue()} срабатывает только при сохранении сущности.
+ * <p>
+ * Задачи обрабатываются порциями по {@code task.overdue.chunk-size}, каждая в своей транзакции:
+ * выборка кандидатов по индексу (deadline, status) с блокировкой строк и один UPDATE по их id.
+ * Стоимость прохода пропорциональна числу просроченных задач, а не всех задач.
+ * Об изменении каждой задачи пишется событие outbox для синхронизации поиска.
+ */
+@Service
+@Slf4j
+public class OverdueTaskSweeper {
+
+    // Те же условия, что в Task.checkOverdue(): выполненные не просрочиваются, просроченные уже помечены
+    private static final List<TaskStatus> EXEMPT_STATUSES = List.of(TaskStatus.DONE, TaskStatus.OVERDUE);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${task.overdue.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Проход по просроченным задачам (раз в минуту). Возвращает число помеченных задач.
+     */
+    @Scheduled(fixedDelayString = "${task.overdue.sweep-interval-ms:60000}")
+    public int sweep() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int marked;
+        do {
+            marked = transactionTemplate.execute(status -> markChunk(now));
+            total += marked;
+        } while (marked == chunkSize);
+
+        sample.stop(Timer.builder("task.overdue.sweep")
+                .description("Duration of a single overdue sweep")
+                .register(meterRegistry));
+        DistributionSummary.builder("task.overdue.sweep.rows")
+                .description("Tasks marked OVERDUE per sweep")
+                .register(meterRegistry)
+                .record(total);
+        if (total > 0) {
+            log.info("Marked {} tasks as OVERDUE", total);
+        }
+        return total;
+    }
+
+    private int markChunk(LocalDateTime now) {
+        List<Object[]> candidates = taskRepository.findOverdueCandidates(now, EXEMPT_STATUSES,
+                PageRequest.of(0, chunkSize));
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = candidates.stream().map(row -> (Long) row[0]).toList();
+        taskRepository.markOverdue(ids, now);
+        outboxService.recordAll(candidates.stream()
+                .map(row -> new TaskOutboxEvent((Long) row[0], (Long) row[1], OutboxEventType.UPDATED))
+                .toList());
+        eventPublisher.publishEvent(new TasksChangedEvent(candidates.stream()
+                .map(row -> (Long) row[1])
+                .collect(Collectors.toSet())));
+        return ids.size();
+    }
+}
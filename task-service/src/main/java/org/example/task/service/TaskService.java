@@ -1,79 +1,351 @@
 package org.example.task.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.task.cache.TaskCache;
+import org.example.task.dto.ChangeFeedPage;
+import org.example.task.dto.TaskChange;
+import org.example.task.dto.TaskChanges;
+import org.example.task.dto.TaskPatch;
+import org.example.task.dto.TaskSummary;
+import org.example.task.event.TasksChangedEvent;
+import org.example.task.model.OutboxEventType;
+import org.example.task.model.Priority;
 import org.example.task.model.Task;
+import org.example.task.model.TaskOutboxEvent;
 import org.example.task.model.TaskStatus;
+import org.example.task.model.TaskTombstone;
 import org.example.task.repository.TaskRepository;
+import org.example.task.repository.TaskTombstoneRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @Transactional
 public class TaskService {
 
+    // Начало ленты изменений, если курсор не передан
+    private static final LocalDateTime FEED_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
     @Autowired
     private CircuitBreakerFactory circuitBreakerFactory;
 
+    @Autowired
+    private TaskCache taskCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Срок хранения отметок об удалении. Должен быть больше search.sync.max-incremental-gap:
+    // потребитель, отставший сильнее, выполняет полную сверку и отметки ему не нужны
+    @Value("${task.tombstones.retention:P30D}")
+    private Duration tombstoneRetention;
+
+    // Изменения моложе этой задержки не отдаются в ленту: транзакции с меньшей меткой еще могут коммититься
+    @Value("${task.feed.settle-delay:PT2S}")
+    private Duration feedSettleDelay;
+
+    // Запрос выполняется в потоке circuit breaker, где своя read-only транзакция репозитория;
+    // внешняя транзакция только держала бы второе соединение на время ожидания
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Task> getAllTasksByUser(Long userId) {
         CircuitBreaker circuitBreaker = circuitBreakerFactory.create("taskService");
         return circuitBreaker.run(() -> {
             log.info("Getting all tasks for user: {}", userId);
-            return taskRepository.findByUserId(userId);
+            return copies(taskCache.get(userId, "findByUserId", userId,
+                    () -> List.copyOf(taskRepository.findByUserId(userId))));
         }, throwable -> {
             log.error("Fallback for user {}: {}", userId, throwable.getMessage());
             return Collections.emptyList();
         });
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TaskSummary> getTaskSummariesByUser(Long userId) {
+        CircuitBreaker circuitBreaker = circuitBreakerFactory.create("taskService");
+        return circuitBreaker.run(() -> {
+            log.info("Getting task summaries for user: {}", userId);
+            return taskCache.get(userId, "findSummariesByUserId", userId,
+                    () -> List.copyOf(taskRepository.findSummariesByUserId(userId)));
+        }, throwable -> {
+            log.error("Fallback for user {} summaries: {}", userId, throwable.getMessage());
+            return Collections.emptyList();
+        });
+    }
+
+    /**
+     * Страница задач пользователя с необязательными фильтрами; {@code null} - фильтр не задан.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Task> getTaskPage(Long userId, TaskStatus status, Priority priority,
+                                   LocalDateTime updatedSince, Pageable pageable) {
+        log.info("Getting task page for user: {}, status: {}, priority: {}, updatedSince: {}, page: {}",
+                userId, status, priority, updatedSince, pageable);
+        return taskRepository.findPageByUserId(userId, status, priority, updatedSince, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<TaskSummary> getTaskSummaryPage(Long userId, TaskStatus status, Priority priority,
+                                                 LocalDateTime updatedSince, Pageable pageable) {
+        log.info("Getting task summary page for user: {}, status: {}, priority: {}, updatedSince: {}, page: {}",
+                userId, status, priority, updatedSince, pageable);
+        return taskRepository.findSummaryPageByUserId(userId, status, priority, updatedSince, pageable);
+    }
+
+    /**
+     * Возвращает задачи, измененные начиная с {@code since}, и удаления за тот же период.
+     * Без {@code since} возвращает все задачи пользователя.
+     * Читается с основной БД: клиент сдвинет водяной знак и не запросит повторно то,
+     * что еще не дошло до реплики.
+     */
+    public TaskChanges getTaskChanges(Long userId, LocalDateTime since) {
+        log.info("Getting task changes for user: {} since: {}", userId, since);
+        List<Task> changed = since == null
+                ? taskRepository.findByUserId(userId)
+                : taskRepository.findByUserIdAndUpdatedAtGreaterThanEqual(userId, since);
+        List<TaskTombstone> tombstones = since == null
+                ? List.of()
+                : taskTombstoneRepository.findByUserIdAndDeletedAtGreaterThanEqual(userId, since);
+
+        LocalDateTime watermark = null;
+        for (Task task : changed) {
+            watermark = latest(watermark, task.getUpdatedAt());
+        }
+        for (TaskTombstone tombstone : tombstones) {
+            watermark = latest(watermark, tombstone.getDeletedAt());
+        }
+
+        List<Long> deletedIds = tombstones.stream()
+                .map(TaskTombstone::getTaskId)
+                .toList();
+        return new TaskChanges(changed, deletedIds, watermark);
+    }
+
+    /**
+     * Лента изменений задач всех пользователей после курсора {@code (afterUpdatedAt, afterId)}:
+     * изменения и удаления, слитые в один порядок по {@code (changedAt, taskId)}.
+     * Читается с основной БД по той же причине, что и {@link #getTaskChanges}.
+     * <p>
+     * Метка времени ставится до коммита, поэтому изменение с меньшей меткой может стать видимым
+     * позже изменения с большей. Изменения моложе {@code task.feed.settle-delay} не отдаются,
+     * чтобы курсор не ушел вперед них; задержка должна превышать длительность транзакций записи.
+     * Удаления видны в ленте в течение срока хранения отметок {@code task.tombstones.retention}.
+     */
+    public ChangeFeedPage getChangeFeed(LocalDateTime afterUpdatedAt, Long afterId, int limit) {
+        LocalDateTime from = afterUpdatedAt != null ? afterUpdatedAt : FEED_START;
+        Long fromId = afterId != null ? afterId : 0L;
+        log.info("Getting change feed after: ({}, {}), limit: {}", from, fromId, limit);
+
+        // Берем по limit + 1 строке из каждого источника: после слияния хватит на страницу и признак hasMore
+        PageRequest window = PageRequest.of(0, limit + 1);
+        LocalDateTime settledBefore = LocalDateTime.now().minus(feedSettleDelay);
+        List<TaskChange> changes = new ArrayList<>();
+        taskRepository.findChangedAfter(from, fromId, settledBefore, window).forEach(task -> changes.add(
+                new TaskChange(TaskChange.Type.UPSERT, task.getId(), task.getUserId(), task.getUpdatedAt(), task)));
+        taskTombstoneRepository.findDeletedAfter(from, fromId, settledBefore, window).forEach(tombstone -> changes.add(
+                new TaskChange(TaskChange.Type.DELETE, tombstone.getTaskId(), tombstone.getUserId(),
+                        tombstone.getDeletedAt(), null)));
+        changes.sort(Comparator.comparing(TaskChange::changedAt).thenComparing(TaskChange::taskId));
+
+        boolean hasMore = changes.size() > limit;
+        List<TaskChange> page = hasMore ? changes.subList(0, limit) : changes;
+        if (page.isEmpty()) {
+            return new ChangeFeedPage(List.of(), from, fromId, false);
+        }
+        TaskChange last = page.get(page.size() - 1);
+        return new ChangeFeedPage(List.copyOf(page), last.changedAt(), last.taskId(), hasMore);
+    }
+
+    /**
+     * Версия задач пользователя для условных запросов. Должна вычисляться до чтения
+     * самих данных: тогда при гонке с записью клиент получит устаревший тег и лишь лишний ответ 200.
+     */
+    @Transactional(readOnly = true)
+    public String getTasksVersion(Long userId) {
+        return taskCache.get(userId, "findVersionByUserId", userId,
+                () -> taskRepository.findVersionByUserId(userId).tag());
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Task> getTaskById(Long id, Long userId) {
         log.info("Getting task by ID: {} for user: {}", id, userId);
-        return taskRepository.findByIdAndUserId(id, userId);
+        return taskCache.get(userId, "findByIdAndUserId", id,
+                () -> taskRepository.findByIdAndUserId(id, userId).map(Task::copy)).map(Task::copy);
     }
 
     public Task createTask(Task task) {
         log.info("Creating task for user: {}", task.getUserId());
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        outboxService.record(saved.getId(), saved.getUserId(), OutboxEventType.CREATED);
+        publishChanged(List.of(saved.getUserId()));
+        return saved;
     }
 
+    // Изменение, событие outbox и отметка об удалении пишутся одним запросом (в PostgreSQL)
+    // без предварительной загрузки задачи
     public Optional<Task> updateTask(Long id, Long userId, Task updatedTask) {
         log.info("Updating task ID: {} for user: {}", id, userId);
-        return taskRepository.findByIdAndUserId(id, userId)
-                .map(existingTask -> {
-                    existingTask.setTitle(updatedTask.getTitle());
-                    existingTask.setDescription(updatedTask.getDescription());
-                    existingTask.setStatus(updatedTask.getStatus());
-                    existingTask.setPriority(updatedTask.getPriority());
-                    existingTask.setDeadline(updatedTask.getDeadline());
-                    return taskRepository.save(existingTask);
-                });
+        Optional<Task> updated = taskRepository.updateOwned(id, userId, updatedTask);
+        updated.ifPresent(task -> publishChanged(List.of(userId)));
+        return updated;
     }
 
     public Optional<Task> updateTaskStatus(Long id, Long userId, TaskStatus status) {
         log.info("Updating status for task ID: {} to: {} for user: {}", id, status, userId);
-        return taskRepository.findByIdAndUserId(id, userId)
-                .map(task -> {
-                    task.setStatus(status);
-                    return taskRepository.save(task);
-                });
+        Optional<Task> updated = taskRepository.updateStatusOwned(id, userId, status);
+        updated.ifPresent(task -> publishChanged(List.of(userId)));
+        return updated;
     }
 
     public boolean deleteTask(Long id, Long userId) {
         log.info("Deleting task ID: {} for user: {}", id, userId);
-        if (taskRepository.existsByIdAndUserId(id, userId)) {
-            taskRepository.deleteByIdAndUserId(id, userId);
-            return true;
+        if (taskRepository.deleteOwned(id, userId) == 0) {
+            return false;
+        }
+        publishChanged(List.of(userId));
+        return true;
+    }
+
+    /**
+     * Создает задачи в одной транзакции. Id выдаются из пула последовательности, поэтому
+     * INSERT задач и событий outbox уходят пачками по {@code hibernate.jdbc.batch_size}.
+     */
+    public List<Task> createTasks(List<Task> tasks) {
+        log.info("Creating {} tasks in batch", tasks.size());
+        // id из тела запроса не учитывается: иначе save() обновил бы существующую задачу
+        tasks.forEach(task -> task.setId(null));
+        List<Task> saved = taskRepository.saveAll(tasks);
+        outboxService.recordAll(saved.stream()
+                .map(task -> new TaskOutboxEvent(task.getId(), task.getUserId(), OutboxEventType.CREATED))
+                .toList());
+        publishChanged(saved.stream().map(Task::getUserId).collect(Collectors.toSet()));
+        return saved;
+    }
+
+    /**
+     * Применяет изменения к задачам пользователя в одной транзакции: задачи читаются одним запросом,
+     * UPDATE отправляются пачками при сбросе контекста. Чужие и несуществующие id пропускаются,
+     * как и изменения, совпадающие с текущими значениями: такие задачи не попадают ни в результат,
+     * ни в outbox.
+     */
+    public List<Task> updateTasks(Long userId, List<TaskPatch> patches) {
+        log.info("Updating {} tasks in batch for user: {}", patches.size(), userId);
+        Map<Long, Task> tasks = taskRepository.findByUserIdAndIdIn(userId,
+                        patches.stream().map(TaskPatch::id).toList()).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        Map<Long, Task> updated = new LinkedHashMap<>();
+        for (TaskPatch patch : patches) {
+            Task task = tasks.get(patch.id());
+            if (task == null) {
+                continue;
+            }
+            // Без короткого замыкания: применяются все заданные поля
+            boolean changed = apply(patch.title(), task.getTitle(), task::setTitle)
+                    | apply(patch.description(), task.getDescription(), task::setDescription)
+                    | apply(patch.status(), task.getStatus(), task::setStatus)
+                    | apply(patch.priority(), task.getPriority(), task::setPriority)
+                    | apply(patch.deadline(), task.getDeadline(), task::setDeadline);
+            if (changed) {
+                updated.put(task.getId(), task);
+            }
+        }
+        outboxService.recordAll(updated.values().stream()
+                .map(task -> new TaskOutboxEvent(task.getId(), userId, OutboxEventType.UPDATED))
+                .toList());
+        if (!updated.isEmpty()) {
+            publishChanged(List.of(userId));
+        }
+        return List.copyOf(updated.values());
+    }
+
+    /**
+     * Удаляет задачи пользователя одним DELETE и возвращает id удаленных.
+     * Отметки об удалении и события outbox записываются пачками в той же транзакции.
+     */
+    public List<Long> deleteTasks(Long userId, List<Long> ids) {
+        log.info("Deleting {} tasks in batch for user: {}", ids.size(), userId);
+        List<Long> found = taskRepository.findIdsByUserIdAndIdIn(userId, ids);
+        if (found.isEmpty()) {
+            return found;
+        }
+        taskRepository.deleteAllByIdInBatch(found);
+        LocalDateTime now = LocalDateTime.now();
+        taskTombstoneRepository.insertAll(found.stream()
+                .map(id -> new TaskTombstone(id, userId, now))
+                .toList());
+        outboxService.recordAll(found.stream()
+                .map(id -> new TaskOutboxEvent(id, userId, OutboxEventType.DELETED))
+                .toList());
+        publishChanged(List.of(userId));
+        return found;
+    }
+
+    /**
+     * Удаляет отметки об удалении старше срока хранения (раз в час)
+     */
+    @Scheduled(fixedDelayString = "${task.tombstones.purge-interval-ms:3600000}")
+    public void purgeTombstones() {
+        int deleted = taskTombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(tombstoneRetention));
+        log.info("Purged {} task tombstones older than {}", deleted, tombstoneRetention);
+    }
+
+    // Закэшированные задачи общие для всех читателей; вызывающий получает свои копии
+    private static List<Task> copies(List<Task> tasks) {
+        return tasks.stream().map(Task::copy).toList();
+    }
+
+    // Задает поле, если значение передано и отличается от текущего; возвращает, изменилось ли оно
+    private static <T> boolean apply(T value, T current, Consumer<T> setter) {
+        if (value == null || value.equals(current)) {
+            return false;
+        }
+        setter.accept(value);
+        return true;
+    }
+
+    // Кэш чтений сбрасывается после коммита, до ответа на запрос
+    private void publishChanged(Collection<Long> userIds) {
+        eventPublisher.publishEvent(new TasksChangedEvent(userIds));
+    }
+
+    private static LocalDateTime latest(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
         }
-        return false;
+        return current == null || candidate.isAfter(current) ? candidate : current;
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package org.example.task;
+
+import org.example.task.cache.TaskCache;
+import org.example.task.event.TasksChangedEvent;
+import org.example.task.model.Priority;
+import org.example.task.model.Task;
+import org.example.task.model.TaskStatus;
+import org.example.task.repository.TaskOutboxRepository;
+import org.example.task.repository.TaskRepository;
+import org.example.task.repository.TaskTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Общий контекст тестов task-service: H2 вместо task_bd, без config-server, Eureka
+ * и проходов по расписанию. Перед каждым тестом таблицы очищаются, а кэш чтений
+ * пользователей тестов сбрасывается: данные часто готовятся в обход TaskService.
+ */
+@SpringBootTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:task-service;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "task.overdue.chunk-size=2",
+        "task.overdue.sweep-interval-ms=3600000",
+        "task.cache.ttl=PT1M"
+})
+@AutoConfigureMockMvc
+public abstract class TaskServiceTestBase {
+
+    protected static final long OWNER = 1L;
+    protected static final long STRANGER = 2L;
+    protected static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    protected TaskRepository taskRepository;
+
+    @Autowired
+    protected TaskOutboxRepository taskOutboxRepository;
+
+    @Autowired
+    protected TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskCache taskCache;
+
+    @BeforeEach
+    void cleanDatabase() {
+        taskRepository.deleteAllInBatch();
+        taskOutboxRepository.deleteAllInBatch();
+        taskTombstoneRepository.deleteAllInBatch();
+        taskCache.onTasksChanged(new TasksChangedEvent(List.of(OWNER, STRANGER)));
+    }
+
+    /**
+     * Сохраняет задачу в обход TaskService, без событий outbox. Срок в прошлом записывается отдельным UPDATE:
+     * {@code @PrePersist} сразу пометил бы задачу просроченной, и в возвращенной задаче его нет.
+     */
+    protected Task save(long userId, String title, TaskStatus status, LocalDateTime deadline) {
+        boolean past = deadline != null && deadline.isBefore(LocalDateTime.now());
+        Task task = taskRepository.saveAndFlush(new Task(title, "Описание", status, Priority.MEDIUM, userId,
+                past ? LocalDateTime.now().plusDays(1) : deadline));
+        if (past) {
+            jdbcTemplate.update("UPDATE tasks SET deadline = ? WHERE id = ?", deadline, task.getId());
+        }
+        return task;
+    }
+
+    /**
+     * Сохраняет задачу, созданную и измененную в {@code changedAt}; время задается в обход {@code @PreUpdate}.
+     */
+    protected Task saveAt(long userId, String title, LocalDateTime changedAt) {
+        Task task = save(userId, title, TaskStatus.TODO, null);
+        jdbcTemplate.update("UPDATE tasks SET created_at = ?, updated_at = ? WHERE id = ?",
+                changedAt, changedAt, task.getId());
+        return task;
+    }
+}
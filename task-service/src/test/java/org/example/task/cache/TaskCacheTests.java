@@ -0,0 +1,92 @@
+package org.example.task.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.task.event.TasksChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Версионная инвалидация кэша чтений задач и окно отставания реплики.
+ */
+class TaskCacheTests {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void cachesUntilUsersTasksChange() {
+        TaskCache cache = cache("", Duration.ofSeconds(5));
+
+        assertEquals(1, load(cache, 1L));
+        assertEquals(1, load(cache, 1L));
+        assertEquals(2, load(cache, 2L));
+
+        cache.onTasksChanged(new TasksChangedEvent(List.of(1L)));
+
+        assertEquals(3, load(cache, 1L));
+        assertEquals(2, load(cache, 2L));
+    }
+
+    @Test
+    void everyChangeGivesNewVersion() {
+        TaskCache cache = cache("", Duration.ofSeconds(5));
+
+        assertEquals(1, load(cache, 1L));
+        cache.onTasksChanged(new TasksChangedEvent(List.of(1L)));
+        assertEquals(2, load(cache, 1L));
+        cache.onTasksChanged(new TasksChangedEvent(List.of(1L, 2L)));
+        cache.onTasksChanged(new TasksChangedEvent(List.of(1L)));
+        assertEquals(3, load(cache, 1L));
+        assertEquals(4, load(cache, 2L));
+        assertEquals(3, load(cache, 1L));
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        TaskCache cache = new TaskCache(false, 100, Duration.ofMinutes(1), "", Duration.ofSeconds(5),
+                new SimpleMeterRegistry());
+
+        assertEquals(1, load(cache, 1L));
+        assertEquals(2, load(cache, 1L));
+    }
+
+    @Test
+    void readOverlappingChangeIsNotCached() {
+        TaskCache cache = cache("", Duration.ofSeconds(5));
+
+        // Изменение закоммичено, пока чтение еще выполнялось
+        cache.get(1L, "read", 1L, () -> {
+            cache.onTasksChanged(new TasksChangedEvent(List.of(1L)));
+            return loads.incrementAndGet();
+        });
+
+        assertEquals(2, load(cache, 1L));
+        assertEquals(2, load(cache, 1L));
+    }
+
+    @Test
+    void readsFromReplicaAreNotCachedWithinLagAfterChange() {
+        TaskCache cache = cache("jdbc:h2:mem:replica", Duration.ofHours(1));
+
+        assertEquals(1, load(cache, 1L));
+        cache.onTasksChanged(new TasksChangedEvent(List.of(1L)));
+
+        assertEquals(2, load(cache, 1L));
+        assertEquals(3, load(cache, 1L));
+        assertEquals(4, load(cache, 2L));
+        assertEquals(4, load(cache, 2L));
+    }
+
+    private TaskCache cache(String replicaUrl, Duration replicaMaxLag) {
+        return new TaskCache(true, 100, Duration.ofMinutes(1), replicaUrl, replicaMaxLag, new SimpleMeterRegistry());
+    }
+
+    // Возвращает номер загрузки, результат которой получил вызывающий
+    private int load(TaskCache cache, Long userId) {
+        return cache.get(userId, "read", userId, loads::incrementAndGet);
+    }
+}
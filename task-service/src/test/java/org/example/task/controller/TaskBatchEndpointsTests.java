@@ -0,0 +1,146 @@
+package org.example.task.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.task.TaskServiceTestBase;
+import org.example.task.model.OutboxEventType;
+import org.example.task.model.Priority;
+import org.example.task.model.Task;
+import org.example.task.model.TaskOutboxEvent;
+import org.example.task.model.TaskStatus;
+import org.example.task.model.TaskTombstone;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Пакетные POST, PATCH и DELETE /api/tasks/batch: задачи, события outbox и отметки об удалении.
+ */
+class TaskBatchEndpointsTests extends TaskServiceTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void createsTasksWithNewIdsAndCreatedEvents() throws Exception {
+        Task existing = taskRepository.save(new Task("Старая", null, TaskStatus.TODO, Priority.LOW, OWNER, null));
+        List<Map<String, Object>> body = IntStream.range(0, 120)
+                .mapToObj(i -> Map.<String, Object>of("id", existing.getId(), "title", "Задача " + i,
+                        "status", "TODO", "priority", "HIGH", "userId", OWNER))
+                .toList();
+
+        List<Task> created = send(post("/api/tasks/batch"), body, new TypeReference<>() {
+        });
+
+        assertEquals(120, created.size());
+        assertEquals(120, created.stream().map(Task::getId).distinct().count());
+        assertTrue(created.stream().noneMatch(task -> task.getId().equals(existing.getId())));
+        assertEquals("Старая", taskRepository.findById(existing.getId()).orElseThrow().getTitle());
+        assertEquals(121, taskRepository.count());
+        assertEquals(Collections.nCopies(120, OutboxEventType.CREATED), eventTypes());
+    }
+
+    @Test
+    void updatesOnlyOwnTasksAndKeepsNullFields() throws Exception {
+        Task own = taskRepository.save(new Task("Своя", "Описание", TaskStatus.TODO, Priority.LOW, OWNER, null));
+        Task foreign = taskRepository.save(new Task("Чужая", null, TaskStatus.TODO, Priority.LOW, STRANGER, null));
+        List<Map<String, Object>> body = List.of(
+                Map.of("id", own.getId(), "status", "IN_PROGRESS"),
+                Map.of("id", foreign.getId(), "status", "DONE"),
+                Map.of("id", Long.MAX_VALUE, "title", "Нет такой"));
+
+        List<Task> updated = send(patch("/api/tasks/batch").param("userId", String.valueOf(OWNER)), body,
+                new TypeReference<>() {
+                });
+
+        assertEquals(List.of(own.getId()), updated.stream().map(Task::getId).toList());
+        Task reloaded = taskRepository.findById(own.getId()).orElseThrow();
+        assertEquals(TaskStatus.IN_PROGRESS, reloaded.getStatus());
+        assertEquals("Своя", reloaded.getTitle());
+        assertEquals("Описание", reloaded.getDescription());
+        assertEquals(Priority.LOW, reloaded.getPriority());
+        assertEquals(TaskStatus.TODO, taskRepository.findById(foreign.getId()).orElseThrow().getStatus());
+        assertEquals(List.of(OutboxEventType.UPDATED), eventTypes());
+    }
+
+    @Test
+    void skipsPatchesThatChangeNothing() throws Exception {
+        Task same = taskRepository.save(new Task("Та же", null, TaskStatus.TODO, Priority.LOW, OWNER, null));
+        Task changed = taskRepository.save(new Task("Другая", null, TaskStatus.TODO, Priority.LOW, OWNER, null));
+        List<Map<String, Object>> body = List.of(
+                Map.of("id", same.getId(), "title", "Та же", "status", "TODO", "priority", "LOW"),
+                Map.of("id", changed.getId(), "title", "Другая", "priority", "HIGH"));
+        LocalDateTime updatedAt = taskRepository.findById(same.getId()).orElseThrow().getUpdatedAt();
+
+        List<Task> updated = send(patch("/api/tasks/batch").param("userId", String.valueOf(OWNER)), body,
+                new TypeReference<>() {
+                });
+
+        assertEquals(List.of(changed.getId()), updated.stream().map(Task::getId).toList());
+        assertEquals(updatedAt, taskRepository.findById(same.getId()).orElseThrow().getUpdatedAt());
+        assertEquals(Priority.HIGH, taskRepository.findById(changed.getId()).orElseThrow().getPriority());
+        assertEquals(List.of(OutboxEventType.UPDATED), eventTypes());
+    }
+
+    @Test
+    void deletesOnlyOwnTasksWithTombstonesAndDeletedEvents() throws Exception {
+        Task first = taskRepository.save(new Task("Первая", null, TaskStatus.TODO, Priority.LOW, OWNER, null));
+        Task second = taskRepository.save(new Task("Вторая", null, TaskStatus.TODO, Priority.LOW, OWNER, null));
+        Task foreign = taskRepository.save(new Task("Чужая", null, TaskStatus.TODO, Priority.LOW, STRANGER, null));
+
+        List<Long> deleted = send(delete("/api/tasks/batch").param("userId", String.valueOf(OWNER)),
+                List.of(first.getId(), second.getId(), foreign.getId()), new TypeReference<>() {
+                });
+
+        assertEquals(List.of(first.getId(), second.getId()), deleted.stream().sorted().toList());
+        assertEquals(List.of(foreign.getId()), taskRepository.findAll().stream().map(Task::getId).toList());
+        List<TaskTombstone> tombstones = taskTombstoneRepository.findAll();
+        assertEquals(List.of(first.getId(), second.getId()),
+                tombstones.stream().map(TaskTombstone::getTaskId).sorted().toList());
+        assertTrue(tombstones.stream().allMatch(tombstone -> tombstone.getUserId().equals(OWNER)));
+        assertEquals(List.of(OutboxEventType.DELETED, OutboxEventType.DELETED), eventTypes());
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedBatches() throws Exception {
+        List<Long> tooMany = IntStream.rangeClosed(1, 1001).mapToObj(Long::valueOf).toList();
+
+        mockMvc.perform(json(post("/api/tasks/batch"), List.of())).andExpect(status().isBadRequest());
+        mockMvc.perform(json(delete("/api/tasks/batch").param("userId", "1"), tooMany))
+                .andExpect(status().isBadRequest());
+        assertTrue(eventTypes().isEmpty());
+    }
+
+    private <T> T send(MockHttpServletRequestBuilder request, Object body, TypeReference<T> type) throws Exception {
+        String response = mockMvc.perform(json(request, body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, type);
+    }
+
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+    }
+
+    private List<OutboxEventType> eventTypes() {
+        return taskOutboxRepository.findAll().stream().map(TaskOutboxEvent::getType).toList();
+    }
+}
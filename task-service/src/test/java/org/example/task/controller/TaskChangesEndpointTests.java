@@ -0,0 +1,72 @@
+package org.example.task.controller;
+
+import org.example.task.TaskServiceTestBase;
+import org.example.task.model.Priority;
+import org.example.task.model.Task;
+import org.example.task.model.TaskStatus;
+import org.example.task.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Условные запросы GET /api/tasks/changes: 304 при совпадении If-None-Match, пока задачи не менялись.
+ */
+class TaskChangesEndpointTests extends TaskServiceTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void matchingETagGivesNotModifiedUntilTasksChange() throws Exception {
+        create("Первая");
+        String etag = etag(mockMvc.perform(changes()).andExpect(status().isOk()).andReturn());
+
+        MvcResult notModified = mockMvc.perform(changes().header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertEquals("", notModified.getResponse().getContentAsString());
+
+        create("Вторая");
+
+        MvcResult modified = mockMvc.perform(changes().header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNotEquals(etag, etag(modified));
+    }
+
+    @Test
+    void eTagDependsOnSince() throws Exception {
+        create("Задача");
+        String all = etag(mockMvc.perform(changes()).andExpect(status().isOk()).andReturn());
+
+        mockMvc.perform(changes().param("since", BASE.toString()).header(HttpHeaders.IF_NONE_MATCH, all))
+                .andExpect(status().isOk());
+    }
+
+    private void create(String title) {
+        taskService.createTask(new Task(title, null, TaskStatus.TODO, Priority.LOW, OWNER, null));
+    }
+
+    private MockHttpServletRequestBuilder changes() {
+        return get("/api/tasks/changes").param("userId", String.valueOf(OWNER));
+    }
+
+    private static String etag(MvcResult result) {
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.task.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.task.TaskServiceTestBase;
+import org.example.task.model.Priority;
+import org.example.task.model.Task;
+import org.example.task.model.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/tasks с фильтрами status, priority, updatedSince и постраничной выдачей.
+ */
+class TaskListEndpointTests extends TaskServiceTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Задачи владельца в порядке создания
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ids.clear();
+        // i-я задача создана и изменена в BASE + i часов
+        Object[][] tasks = {
+                {TaskStatus.TODO, Priority.HIGH},
+                {TaskStatus.DONE, Priority.HIGH},
+                {TaskStatus.TODO, Priority.LOW},
+                {TaskStatus.IN_PROGRESS, Priority.HIGH},
+                {TaskStatus.TODO, Priority.HIGH}
+        };
+        for (int i = 0; i < tasks.length; i++) {
+            Task task = taskRepository.save(new Task("Задача " + i, "Описание", (TaskStatus) tasks[i][0],
+                    (Priority) tasks[i][1], OWNER, null));
+            jdbcTemplate.update("UPDATE tasks SET created_at = ?, updated_at = ? WHERE id = ?",
+                    BASE.plusHours(i), BASE.plusHours(i), task.getId());
+            ids.add(task.getId());
+        }
+        taskRepository.save(new Task("Чужая", null, TaskStatus.TODO, Priority.HIGH, STRANGER, null));
+    }
+
+    @Test
+    void filtersByStatusPriorityAndUpdatedSince() throws Exception {
+        assertEquals(List.of(ids.get(0), ids.get(2), ids.get(4)), taskIds(list().param("status", "TODO")));
+        assertEquals(List.of(ids.get(0), ids.get(4)),
+                taskIds(list().param("status", "TODO").param("priority", "HIGH")));
+        assertEquals(List.of(ids.get(3), ids.get(4)),
+                taskIds(list().param("updatedSince", BASE.plusHours(3).toString())));
+        assertEquals(List.of(ids.get(4)), taskIds(list().param("status", "TODO")
+                .param("priority", "HIGH").param("updatedSince", BASE.plusHours(3).toString())));
+    }
+
+    @Test
+    void pagesInCreationOrderWithHasNextHeader() throws Exception {
+        MvcResult first = page(0, 2);
+        MvcResult last = page(2, 2);
+
+        assertEquals(List.of(ids.get(0), ids.get(1)), taskIds(first));
+        assertEquals("true", first.getResponse().getHeader("X-Has-Next"));
+        assertEquals(List.of(ids.get(2), ids.get(3)), taskIds(page(1, 2)));
+        assertEquals(List.of(ids.get(4)), taskIds(last));
+        assertEquals("false", last.getResponse().getHeader("X-Has-Next"));
+    }
+
+    @Test
+    void summaryViewPagesWithoutDescription() throws Exception {
+        MvcResult result = mockMvc.perform(list().param("view", "summary").param("priority", "HIGH")
+                        .param("page", "0").param("size", "3"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<Map<String, Object>> summaries = objectMapper.readValue(result.getResponse().getContentAsString(),
+                new TypeReference<>() {
+                });
+        assertEquals(List.of(ids.get(0), ids.get(1), ids.get(3)),
+                summaries.stream().map(summary -> ((Number) summary.get("id")).longValue()).toList());
+        assertFalse(summaries.get(0).containsKey("description"));
+        assertEquals("true", result.getResponse().getHeader("X-Has-Next"));
+    }
+
+    @Test
+    void unfilteredListKeepsFullResponseWithoutHasNext() throws Exception {
+        MvcResult result = mockMvc.perform(list()).andExpect(status().isOk()).andReturn();
+
+        assertEquals(ids, taskIds(result).stream().sorted().toList());
+        assertNull(result.getResponse().getHeader("X-Has-Next"));
+        assertNotEquals(result.getResponse().getHeader(HttpHeaders.ETAG),
+                page(0, 2).getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void rejectsInvalidPage() throws Exception {
+        mockMvc.perform(list().param("page", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(list().param("size", "0")).andExpect(status().isBadRequest());
+    }
+
+    private MockHttpServletRequestBuilder list() {
+        return get("/api/tasks").param("userId", String.valueOf(OWNER));
+    }
+
+    private MvcResult page(int page, int size) throws Exception {
+        return mockMvc.perform(list().param("page", String.valueOf(page)).param("size", String.valueOf(size)))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private List<Long> taskIds(MockHttpServletRequestBuilder request) throws Exception {
+        return taskIds(mockMvc.perform(request).andExpect(status().isOk()).andReturn());
+    }
+
+    private List<Long> taskIds(MvcResult result) throws Exception {
+        List<Task> tasks = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+        });
+        return tasks.stream().map(Task::getId).toList();
+    }
+}
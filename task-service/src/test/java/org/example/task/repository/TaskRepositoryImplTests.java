@@ -0,0 +1,150 @@
+package org.example.task.repository;
+
+import jakarta.persistence.EntityManager;
+import org.example.task.TaskServiceTestBase;
+import org.example.task.model.OutboxEventType;
+import org.example.task.model.Priority;
+import org.example.task.model.Task;
+import org.example.task.model.TaskOutboxEvent;
+import org.example.task.model.TaskStatus;
+import org.example.task.model.TaskTombstone;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Изменение и удаление задачи одним оператором с проверкой владельца (ветка не-PostgreSQL на H2).
+ */
+@Transactional
+class TaskRepositoryImplTests extends TaskServiceTestBase {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void updateOwnedChangesTaskAndRecordsEvent() {
+        Task task = save(TaskStatus.TODO, null);
+
+        Optional<Task> updated = taskRepository.updateOwned(task.getId(), OWNER,
+                values("Новое название", TaskStatus.IN_PROGRESS, null));
+
+        assertTrue(updated.isPresent());
+        assertEquals("Новое название", updated.get().getTitle());
+        assertEquals(TaskStatus.IN_PROGRESS, updated.get().getStatus());
+        assertTrue(updated.get().getUpdatedAt().isAfter(task.getUpdatedAt()));
+        assertEquals("Новое название", reload(task).getTitle());
+        assertEvents(List.of(OutboxEventType.UPDATED), task.getId());
+    }
+
+    @Test
+    void updateOwnedMarksPastDeadlineAsOverdueUnlessDone() {
+        Task todo = save(TaskStatus.TODO, null);
+        Task done = save(TaskStatus.TODO, null);
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+
+        assertEquals(TaskStatus.OVERDUE, taskRepository.updateOwned(todo.getId(), OWNER,
+                values("Просрочена", TaskStatus.TODO, yesterday)).orElseThrow().getStatus());
+        assertEquals(TaskStatus.DONE, taskRepository.updateOwned(done.getId(), OWNER,
+                values("Выполнена", TaskStatus.DONE, yesterday)).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updateOwnedIgnoresOtherUsersTask() {
+        Task task = save(TaskStatus.TODO, null);
+
+        assertTrue(taskRepository.updateOwned(task.getId(), STRANGER,
+                values("Чужая", TaskStatus.DONE, null)).isEmpty());
+        assertEquals("Задача", reload(task).getTitle());
+        assertEvents(List.of(), task.getId());
+    }
+
+    @Test
+    void updateStatusOwnedComputesOverdueFromStoredDeadline() {
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        Task overdue = save(TaskStatus.TODO, tomorrow);
+        Task done = save(TaskStatus.TODO, tomorrow);
+        Task noDeadline = save(TaskStatus.TODO, null);
+        moveDeadline(overdue, yesterday);
+        moveDeadline(done, yesterday);
+
+        assertEquals(TaskStatus.OVERDUE,
+                taskRepository.updateStatusOwned(overdue.getId(), OWNER, TaskStatus.IN_PROGRESS).orElseThrow().getStatus());
+        assertEquals(TaskStatus.DONE,
+                taskRepository.updateStatusOwned(done.getId(), OWNER, TaskStatus.DONE).orElseThrow().getStatus());
+        assertEquals(TaskStatus.IN_PROGRESS,
+                taskRepository.updateStatusOwned(noDeadline.getId(), OWNER, TaskStatus.IN_PROGRESS).orElseThrow().getStatus());
+        assertEvents(List.of(OutboxEventType.UPDATED), overdue.getId());
+    }
+
+    @Test
+    void updateStatusOwnedIgnoresOtherUsersTask() {
+        Task task = save(TaskStatus.TODO, null);
+
+        assertTrue(taskRepository.updateStatusOwned(task.getId(), STRANGER, TaskStatus.DONE).isEmpty());
+        assertEquals(TaskStatus.TODO, reload(task).getStatus());
+        assertEvents(List.of(), task.getId());
+    }
+
+    @Test
+    void deleteOwnedRemovesTaskAndRecordsTombstoneAndEvent() {
+        Task task = save(TaskStatus.TODO, null);
+
+        assertEquals(1, taskRepository.deleteOwned(task.getId(), OWNER));
+
+        entityManager.clear();
+        assertTrue(taskRepository.findById(task.getId()).isEmpty());
+        List<TaskTombstone> tombstones = taskTombstoneRepository.findAll();
+        assertEquals(1, tombstones.size());
+        assertEquals(task.getId(), tombstones.get(0).getTaskId());
+        assertEquals(OWNER, tombstones.get(0).getUserId());
+        assertEvents(List.of(OutboxEventType.DELETED), task.getId());
+    }
+
+    @Test
+    void deleteOwnedIgnoresOtherUsersTask() {
+        Task task = save(TaskStatus.TODO, null);
+
+        assertEquals(0, taskRepository.deleteOwned(task.getId(), STRANGER));
+
+        assertEquals("Задача", reload(task).getTitle());
+        assertTrue(taskTombstoneRepository.findAll().isEmpty());
+        assertEvents(List.of(), task.getId());
+    }
+
+    private Task save(TaskStatus status, LocalDateTime deadline) {
+        return save(OWNER, "Задача", status, deadline);
+    }
+
+    // Срок в прошлом нельзя сохранить через сущность: @PrePersist сразу пометит задачу просроченной
+    private void moveDeadline(Task task, LocalDateTime deadline) {
+        entityManager.createNativeQuery("UPDATE tasks SET deadline = ?1 WHERE id = ?2")
+                .setParameter(1, deadline)
+                .setParameter(2, task.getId())
+                .executeUpdate();
+    }
+
+    private Task reload(Task task) {
+        entityManager.clear();
+        return taskRepository.findById(task.getId()).orElseThrow();
+    }
+
+    private void assertEvents(List<OutboxEventType> expected, Long taskId) {
+        List<OutboxEventType> events = taskOutboxRepository.findAll().stream()
+                .filter(event -> event.getTaskId().equals(taskId))
+                .map(TaskOutboxEvent::getType)
+                .toList();
+        assertEquals(expected, events);
+    }
+
+    private static Task values(String title, TaskStatus status, LocalDateTime deadline) {
+        return new Task(title, "Описание", status, Priority.HIGH, OWNER, deadline);
+    }
+}
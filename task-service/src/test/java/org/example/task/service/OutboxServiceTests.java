@@ -0,0 +1,75 @@
+package org.example.task.service;
+
+import org.example.task.TaskServiceTestBase;
+import org.example.task.dto.OutboxBatch;
+import org.example.task.dto.OutboxEvent;
+import org.example.task.model.Priority;
+import org.example.task.model.Task;
+import org.example.task.model.TaskOutboxEvent;
+import org.example.task.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Выдача событий outbox с наименьшим хранящимся id и удаление событий по сроку хранения.
+ */
+class OutboxServiceTests extends TaskServiceTestBase {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void purgeKeepsNewestEventAndBatchReportsOldestRetainedId() {
+        List<Long> taskIds = List.of(create("Первая"), create("Вторая"), create("Третья"));
+        List<Long> eventIds = eventIds();
+        jdbcTemplate.update("UPDATE task_outbox SET created_at = ?", LocalDateTime.now().minusDays(2));
+
+        OutboxBatch before = outboxService.readBatch(0L, 10);
+        assertEquals(eventIds.get(0), before.oldestId());
+        assertEquals(taskIds, before.events().stream().map(OutboxEvent::taskId).toList());
+
+        outboxService.purge();
+
+        assertEquals(List.of(eventIds.get(2)), eventIds());
+        OutboxBatch after = outboxService.readBatch(eventIds.get(0), 10);
+        assertEquals(eventIds.get(2), after.oldestId());
+        assertEquals(List.of(eventIds.get(2)), after.events().stream().map(OutboxEvent::id).toList());
+    }
+
+    @Test
+    void purgeKeepsEventsWithinRetention() {
+        create("Первая");
+        create("Вторая");
+
+        outboxService.purge();
+
+        assertEquals(2, eventIds().size());
+    }
+
+    @Test
+    void emptyOutboxHasNoOldestId() {
+        OutboxBatch batch = outboxService.readBatch(5L, 10);
+
+        assertTrue(batch.events().isEmpty());
+        assertEquals(5L, batch.lastId());
+        assertNull(batch.oldestId());
+    }
+
+    private Long create(String title) {
+        return taskService.createTask(new Task(title, null, TaskStatus.TODO, Priority.LOW, OWNER, null)).getId();
+    }
+
+    private List<Long> eventIds() {
+        return taskOutboxRepository.findAll().stream().map(TaskOutboxEvent::getId).sorted().toList();
+    }
+}
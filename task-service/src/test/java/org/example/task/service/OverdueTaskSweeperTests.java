@@ -0,0 +1,69 @@
+package org.example.task.service;
+
+import org.example.task.TaskServiceTestBase;
+import org.example.task.model.OutboxEventType;
+import org.example.task.model.Task;
+import org.example.task.model.TaskOutboxEvent;
+import org.example.task.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пометка просроченных задач порциями: какие задачи помечаются, событие outbox на каждую.
+ * Проход по расписанию может успеть раньше теста, поэтому проверяется итоговое состояние задач.
+ */
+class OverdueTaskSweeperTests extends TaskServiceTestBase {
+
+    @Autowired
+    private OverdueTaskSweeper overdueTaskSweeper;
+
+    @Test
+    void marksAllExpiredTasksAcrossChunks() {
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        List<Task> expired = IntStream.range(0, 5)
+                .mapToObj(i -> save(i % 2 == 0 ? TaskStatus.TODO : TaskStatus.IN_PROGRESS, yesterday))
+                .toList();
+
+        overdueTaskSweeper.sweep();
+
+        for (Task task : expired) {
+            Task swept = taskRepository.findById(task.getId()).orElseThrow();
+            assertEquals(TaskStatus.OVERDUE, swept.getStatus());
+            assertTrue(swept.getUpdatedAt().isAfter(task.getUpdatedAt()));
+            assertEquals(List.of(OutboxEventType.UPDATED), eventTypes(task));
+        }
+        assertEquals(0, overdueTaskSweeper.sweep());
+    }
+
+    @Test
+    void skipsDoneFutureAndDeadlineFreeTasks() {
+        Task done = save(TaskStatus.DONE, LocalDateTime.now().minusDays(1));
+        Task future = save(TaskStatus.TODO, LocalDateTime.now().plusDays(1));
+        Task noDeadline = save(TaskStatus.IN_PROGRESS, null);
+
+        assertEquals(0, overdueTaskSweeper.sweep());
+
+        assertEquals(TaskStatus.DONE, taskRepository.findById(done.getId()).orElseThrow().getStatus());
+        assertEquals(TaskStatus.TODO, taskRepository.findById(future.getId()).orElseThrow().getStatus());
+        assertEquals(TaskStatus.IN_PROGRESS, taskRepository.findById(noDeadline.getId()).orElseThrow().getStatus());
+        assertTrue(taskOutboxRepository.findAll().isEmpty());
+    }
+
+    private Task save(TaskStatus status, LocalDateTime deadline) {
+        return save(OWNER, "Задача", status, deadline);
+    }
+
+    private List<OutboxEventType> eventTypes(Task task) {
+        return taskOutboxRepository.findAll().stream()
+                .filter(event -> event.getTaskId().equals(task.getId()))
+                .map(TaskOutboxEvent::getType)
+                .toList();
+    }
+}
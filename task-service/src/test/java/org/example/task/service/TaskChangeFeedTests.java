@@ -0,0 +1,76 @@
+package org.example.task.service;
+
+import org.example.task.TaskServiceTestBase;
+import org.example.task.dto.ChangeFeedPage;
+import org.example.task.dto.TaskChange;
+import org.example.task.model.Task;
+import org.example.task.model.TaskStatus;
+import org.example.task.model.TaskTombstone;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Лента изменений всех пользователей: общий порядок изменений и удалений по (changedAt, taskId),
+ * курсор между страницами и задержка task.feed.settle-delay для свежих изменений.
+ */
+class TaskChangeFeedTests extends TaskServiceTestBase {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void mergesChangesAndDeletionsInCursorOrder() {
+        Task first = saveAt(OWNER, "Первая", BASE.plusHours(1));
+        Task second = saveAt(STRANGER, "Вторая", BASE.plusHours(2));
+        long deletedEarlier = first.getId() + 1000;
+        long deletedAtSameTime = first.getId() + 1001;
+        taskTombstoneRepository.save(new TaskTombstone(deletedEarlier, OWNER, BASE.plusMinutes(30)));
+        taskTombstoneRepository.save(new TaskTombstone(deletedAtSameTime, STRANGER, BASE.plusHours(1)));
+
+        ChangeFeedPage page = taskService.getChangeFeed(null, null, 2);
+
+        assertEquals(List.of(deletedEarlier, first.getId()), taskIds(page));
+        assertEquals(List.of(TaskChange.Type.DELETE, TaskChange.Type.UPSERT),
+                page.changes().stream().map(TaskChange::type).toList());
+        assertTrue(page.hasMore());
+        assertEquals(BASE.plusHours(1), page.nextUpdatedAt());
+        assertEquals(first.getId(), page.nextId());
+
+        ChangeFeedPage next = taskService.getChangeFeed(page.nextUpdatedAt(), page.nextId(), 2);
+
+        assertEquals(List.of(deletedAtSameTime, second.getId()), taskIds(next));
+        assertFalse(next.hasMore());
+
+        ChangeFeedPage last = taskService.getChangeFeed(next.nextUpdatedAt(), next.nextId(), 2);
+
+        assertTrue(last.changes().isEmpty());
+        assertEquals(next.nextUpdatedAt(), last.nextUpdatedAt());
+        assertEquals(next.nextId(), last.nextId());
+    }
+
+    @Test
+    void freshChangesAppearAfterSettleDelay() {
+        Task task = save(OWNER, "Только что", TaskStatus.TODO, null);
+        taskTombstoneRepository.save(new TaskTombstone(task.getId() + 1000, OWNER, LocalDateTime.now()));
+
+        assertTrue(taskService.getChangeFeed(null, null, 10).changes().isEmpty());
+
+        LocalDateTime settled = LocalDateTime.now().minusSeconds(3);
+        jdbcTemplate.update("UPDATE tasks SET updated_at = ?", settled);
+        jdbcTemplate.update("UPDATE task_tombstones SET deleted_at = ?", settled);
+
+        assertEquals(List.of(task.getId(), task.getId() + 1000),
+                taskIds(taskService.getChangeFeed(null, null, 10)));
+    }
+
+    private static List<Long> taskIds(ChangeFeedPage page) {
+        return page.changes().stream().map(TaskChange::taskId).toList();
+    }
+}
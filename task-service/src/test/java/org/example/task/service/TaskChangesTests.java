@@ -0,0 +1,76 @@
+package org.example.task.service;
+
+import org.example.task.TaskServiceTestBase;
+import org.example.task.dto.TaskChanges;
+import org.example.task.model.Task;
+import org.example.task.model.TaskTombstone;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Изменения задач пользователя с момента since: измененные задачи, удаления и водяной знак.
+ */
+class TaskChangesTests extends TaskServiceTestBase {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void changesSinceIncludeTasksAndTombstonesFromThatMoment() {
+        saveAt(OWNER, "Раньше", BASE);
+        Task atSince = saveAt(OWNER, "Ровно в since", BASE.plusHours(1));
+        Task after = saveAt(OWNER, "Позже", BASE.plusHours(2));
+        saveAt(STRANGER, "Чужая", BASE.plusHours(3));
+        taskTombstoneRepository.save(new TaskTombstone(100L, OWNER, BASE.plusMinutes(30)));
+        taskTombstoneRepository.save(new TaskTombstone(101L, OWNER, BASE.plusHours(1)));
+        taskTombstoneRepository.save(new TaskTombstone(102L, STRANGER, BASE.plusHours(4)));
+
+        TaskChanges changes = taskService.getTaskChanges(OWNER, BASE.plusHours(1));
+
+        assertEquals(List.of(atSince.getId(), after.getId()), ids(changes.tasks()));
+        assertEquals(List.of(101L), changes.deletedIds());
+        assertEquals(BASE.plusHours(2), changes.watermark());
+    }
+
+    @Test
+    void watermarkCoversLatestTombstone() {
+        saveAt(OWNER, "Задача", BASE);
+        taskTombstoneRepository.save(new TaskTombstone(100L, OWNER, BASE.plusHours(5)));
+
+        assertEquals(BASE.plusHours(5), taskService.getTaskChanges(OWNER, BASE).watermark());
+    }
+
+    @Test
+    void fullListReturnsAllTasksWithoutTombstones() {
+        Task first = saveAt(OWNER, "Первая", BASE);
+        Task second = saveAt(OWNER, "Вторая", BASE.plusHours(1));
+        taskTombstoneRepository.save(new TaskTombstone(100L, OWNER, BASE.plusHours(2)));
+
+        TaskChanges changes = taskService.getTaskChanges(OWNER, null);
+
+        assertEquals(List.of(first.getId(), second.getId()), ids(changes.tasks()));
+        assertTrue(changes.deletedIds().isEmpty());
+        assertEquals(BASE.plusHours(1), changes.watermark());
+    }
+
+    @Test
+    void noChangesGiveNoWatermark() {
+        saveAt(OWNER, "Задача", BASE);
+
+        TaskChanges changes = taskService.getTaskChanges(OWNER, BASE.plusHours(1));
+
+        assertTrue(changes.tasks().isEmpty());
+        assertTrue(changes.deletedIds().isEmpty());
+        assertNull(changes.watermark());
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).sorted().toList();
+    }
+}
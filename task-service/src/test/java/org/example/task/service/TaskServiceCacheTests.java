@@ -0,0 +1,84 @@
+package org.example.task.service;
+
+import org.example.task.TaskServiceTestBase;
+import org.example.task.model.Priority;
+import org.example.task.model.Task;
+import org.example.task.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Чтения через TaskService кэшируются, а изменения через него сбрасывают кэш пользователя после коммита.
+ */
+class TaskServiceCacheTests extends TaskServiceTestBase {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void readsAreServedFromCacheUntilTaskServiceChangesThem() {
+        Task task = taskService.createTask(new Task("Исходная", null, TaskStatus.TODO, Priority.LOW, OWNER, null));
+        assertEquals("Исходная", taskService.getTaskById(task.getId(), OWNER).orElseThrow().getTitle());
+
+        // Изменение в обход сервиса не сбрасывает кэш: чтение отдает закэшированную задачу
+        rename(task, "В обход сервиса");
+        assertEquals("Исходная", taskService.getTaskById(task.getId(), OWNER).orElseThrow().getTitle());
+
+        taskService.updateTaskStatus(task.getId(), OWNER, TaskStatus.IN_PROGRESS);
+        Task reloaded = taskService.getTaskById(task.getId(), OWNER).orElseThrow();
+        assertEquals("В обход сервиса", reloaded.getTitle());
+        assertEquals(TaskStatus.IN_PROGRESS, reloaded.getStatus());
+    }
+
+    @Test
+    void createAndDeleteInvalidateListsAndVersion() {
+        Task first = taskService.createTask(new Task("Первая", null, TaskStatus.TODO, Priority.LOW, OWNER, null));
+        String version = taskService.getTasksVersion(OWNER);
+        assertEquals(List.of(first.getId()), ids(taskService.getAllTasksByUser(OWNER)));
+
+        Task second = taskService.createTask(new Task("Вторая", null, TaskStatus.TODO, Priority.LOW, OWNER, null));
+        assertEquals(List.of(first.getId(), second.getId()), ids(taskService.getAllTasksByUser(OWNER)));
+        assertNotEquals(version, taskService.getTasksVersion(OWNER));
+
+        assertTrue(taskService.deleteTask(first.getId(), OWNER));
+        assertEquals(List.of(second.getId()), ids(taskService.getAllTasksByUser(OWNER)));
+        assertTrue(taskService.getTaskById(first.getId(), OWNER).isEmpty());
+    }
+
+    @Test
+    void changesOfOneUserKeepOtherUsersCached() {
+        Task own = taskService.createTask(new Task("Своя", null, TaskStatus.TODO, Priority.LOW, OWNER, null));
+        Task other = taskService.createTask(new Task("Чужая", null, TaskStatus.TODO, Priority.LOW, STRANGER, null));
+        taskService.getTaskById(other.getId(), STRANGER);
+
+        rename(other, "В обход сервиса");
+        taskService.updateTaskStatus(own.getId(), OWNER, TaskStatus.DONE);
+
+        assertEquals("Чужая", taskService.getTaskById(other.getId(), STRANGER).orElseThrow().getTitle());
+    }
+
+    @Test
+    void callersCannotChangeCachedTasks() {
+        Task task = taskService.createTask(new Task("Исходная", null, TaskStatus.TODO, Priority.LOW, OWNER, null));
+
+        taskService.getTaskById(task.getId(), OWNER).orElseThrow().setTitle("Изменена читателем");
+        taskService.getAllTasksByUser(OWNER).get(0).setTitle("Изменена читателем");
+
+        assertEquals("Исходная", taskService.getTaskById(task.getId(), OWNER).orElseThrow().getTitle());
+        assertEquals("Исходная", taskService.getAllTasksByUser(OWNER).get(0).getTitle());
+    }
+
+    private void rename(Task task, String title) {
+        jdbcTemplate.update("UPDATE tasks SET title = ? WHERE id = ?", title, task.getId());
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).sorted().toList();
+    }
+}